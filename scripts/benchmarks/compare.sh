@@ -0,0 +1,35 @@
+#!/usr/bin/env bash
+
+# Compares two JMH JSON result files (e.g. spring-petclinic-benchmarks/target/jmh-result.json of two releases)
+# and fails when a benchmark got slower by more than the given percentage. Requires jq.
+
+set -o errexit
+set -o errtrace
+set -o nounset
+set -o pipefail
+
+if [[ $# -lt 2 ]]; then
+    echo "usage: $0: <baseline.json> <candidate.json> [max regression in %, default 10]"
+    exit 1
+fi
+
+BASELINE="$1"
+CANDIDATE="$2"
+THRESHOLD="${3:-10}"
+
+scores() {
+    jq -r '.[] | [.benchmark + (if .params then "(" + (.params | to_entries | map(.key + "=" + .value) | join(",")) + ")" else "" end),
+                  .mode, .primaryMetric.score, .primaryMetric.scoreUnit] | @tsv' "$1" | sort
+}
+
+join -t $'\t' <(scores "${BASELINE}") <(scores "${CANDIDATE}") | awk -F '\t' -v threshold="${THRESHOLD}" '
+{
+    # columns: name, mode, baseline, unit, mode, candidate, unit
+    change = ($6 - $3) / $3 * 100
+    # throughput modes are better when higher, time modes when lower
+    regression = ($2 == "thrpt") ? -change : change
+    status = regression > threshold ? "REGRESSION" : "ok"
+    if (status == "REGRESSION") failed = 1
+    printf "%-10s %-90s %14.3f -> %14.3f %-8s %+7.1f%%\n", status, $1, $3, $6, $4, change
+}
+END { exit failed }'
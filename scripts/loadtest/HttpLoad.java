@@ -0,0 +1,80 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Minimal closed-loop HTTP load generator, used by virtual_threads.sh when wrk is not installed: each connection is
+ * a virtual thread sending its next GET as soon as the previous response is read. Prints the requests per second and
+ * the latency percentiles in the format of {@code wrk --latency}.
+ * <p>
+ * Usage: {@code java HttpLoad.java <url> <connections> <duration, e.g. 30s>} (Java 21+).
+ */
+public class HttpLoad {
+
+    public static void main(String[] args) throws Exception {
+        URI uri = URI.create(args[0]);
+        int connections = Integer.parseInt(args[1]);
+        Duration duration = Duration.ofSeconds(Long.parseLong(args[2].replace("s", "")));
+
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).GET().build();
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        List<Future<long[]>> workers = new ArrayList<>(connections);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < connections; i++) {
+                workers.add(executor.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                            continue;
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - start;
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+        }
+
+        long[] all = workers.stream().map(HttpLoad::join).flatMapToLong(Arrays::stream).sorted().toArray();
+        System.out.printf("  %d requests in %ds, %d errors%n", all.length, duration.toSeconds(), errors.get());
+        System.out.println("  Latency Distribution");
+        for (double percentile : new double[] {50, 75, 90, 99}) {
+            long nanos = all.length == 0 ? 0 : all[(int) Math.min(all.length - 1, Math.ceil(all.length * percentile / 100) - 1)];
+            System.out.printf("     %d%%  %.2fms%n", (int) percentile, nanos / 1e6);
+        }
+        System.out.printf("Requests/sec: %.2f%n", all.length / (double) duration.toSeconds());
+    }
+
+    private static long[] join(Future<long[]> worker) {
+        try {
+            return worker.get();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
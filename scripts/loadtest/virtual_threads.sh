@@ -0,0 +1,69 @@
+#!/usr/bin/env bash
+
+# Compares throughput and p99 latency of a servlet service with and without the virtual-threads profile.
+# Requires the service jar built with ./mvnw package, and wrk (https://github.com/wg/wrk) or else uses HttpLoad.java.
+
+set -o errexit
+set -o errtrace
+set -o nounset
+set -o pipefail
+
+usage() {
+    echo "usage: $0: <customers|visits|vets> [connections] [duration] [runs]"
+    echo "Example"
+    echo "$0 customers 2000 60s 3"
+    exit 1
+}
+
+[[ $# -lt 1 ]] && usage
+
+case "$1" in
+    customers) PORT=8081; URL_PATH="/owners/1" ;;
+    visits)    PORT=8082; URL_PATH="/pets/visits?petId=7,8" ;;
+    vets)      PORT=8083; URL_PATH="/vets" ;;
+    *)         usage ;;
+esac
+SERVICE="$1"
+CONNECTIONS="${2:-2000}"
+DURATION="${3:-60s}"
+# runs of each mode, alternated so that a drift of the machine does not favour one mode
+RUNS="${4:-1}"
+SCRIPT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+JAR=$(ls spring-petclinic-"${SERVICE}"-service/target/spring-petclinic-"${SERVICE}"-service-*.jar | grep -v -- -classes.jar | head -1)
+mkdir -p target
+
+ulimit -n 65536 || echo "Could not raise the open files limit, ${CONNECTIONS} connections may fail"
+
+# load <duration> <output>: GETs the service with ${CONNECTIONS} connections, reported in the format of wrk --latency
+load() {
+    if command -v wrk > /dev/null; then
+        wrk -t8 -c"${CONNECTIONS}" -d"$1" --latency "http://localhost:${PORT}${URL_PATH}" > "$2"
+    else
+        java "${SCRIPT_DIR}/HttpLoad.java" "http://localhost:${PORT}${URL_PATH}" "${CONNECTIONS}" "$1" > "$2"
+    fi
+}
+
+run() {
+    local mode="$1" profiles="$2" run="$3"
+    nohup java -jar "${JAR}" --server.port="${PORT}" --spring.profiles.active="${profiles}" \
+        --spring.cloud.config.enabled=false --eureka.client.enabled=false \
+        > "target/${SERVICE}-${mode}.log" 2>&1 &
+    local pid=$!
+    until curl -sf "http://localhost:${PORT}/actuator/health" > /dev/null; do
+        kill -0 "${pid}" 2> /dev/null || { echo "${SERVICE}-service did not start, see target/${SERVICE}-${mode}.log"; exit 1; }
+        sleep 1
+    done
+
+    load 10s /dev/null
+    load "${DURATION}" "target/${SERVICE}-${mode}-${run}.wrk"
+
+    echo "run ${run}, ${mode}: $(grep 'Requests/sec' "target/${SERVICE}-${mode}-${run}.wrk"), p99 $(awk '$1 == "99%" {print $2}' "target/${SERVICE}-${mode}-${run}.wrk")"
+    echo "run ${run}, ${mode}: pinned virtual threads logged: $(grep -c "Virtual thread pinned" "target/${SERVICE}-${mode}.log" || true)"
+    kill "${pid}" && wait "${pid}" || true
+}
+
+echo "Load testing ${SERVICE}-service with ${CONNECTIONS} connections for ${DURATION}, ${RUNS} run(s) of each mode"
+for run in $(seq 1 "${RUNS}"); do
+    run platform-threads default "${run}"
+    run virtual-threads virtual-threads "${run}"
+done
@@ -15,6 +15,7 @@
  */
 package org.springframework.samples.petclinic.api.application;
 
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.samples.petclinic.api.dto.OwnerDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -26,16 +27,26 @@ import reactor.core.publisher.Mono;
 @Component
 public class CustomersServiceClient {
 
-    private final WebClient.Builder webClientBuilder;
+    // Could be changed for testing purpose
+    private String hostname = "http://customers-service/";
 
-    public CustomersServiceClient(WebClient.Builder webClientBuilder) {
-        this.webClientBuilder = webClientBuilder;
+    private final WebClient webClient;
+    private final SingleFlight singleFlight;
+
+    public CustomersServiceClient(@Qualifier("customersServiceWebClientBuilder") WebClient.Builder webClientBuilder,
+                                  SingleFlight singleFlight) {
+        this.webClient = webClientBuilder.build();
+        this.singleFlight = singleFlight;
     }
 
     public Mono<OwnerDetails> getOwner(final int ownerId) {
-        return webClientBuilder.build().get()
-            .uri("http://customers-service/owners/{ownerId}", ownerId)
+        return singleFlight.execute("customers.owner", ownerId, () -> webClient.get()
+            .uri(hostname + "owners/{ownerId}", ownerId)
             .retrieve()
-            .bodyToMono(OwnerDetails.class);
+            .bodyToMono(OwnerDetails.class));
+    }
+
+    void setHostname(String hostname) {
+        this.hostname = hostname;
     }
 }
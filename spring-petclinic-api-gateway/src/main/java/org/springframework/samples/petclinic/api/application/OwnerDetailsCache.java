@@ -0,0 +1,48 @@
+package org.springframework.samples.petclinic.api.application;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.samples.petclinic.api.dto.OwnerDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Caffeine cache of aggregated {@link OwnerDetails} keyed by owner id.
+ * <p>
+ * Only complete aggregates are meant to be stored: an owner whose visits could not be fetched
+ * should not be cached. Entries are evicted when a write for the owner goes through the gateway.
+ */
+@Component
+public class OwnerDetailsCache {
+
+    static final String CACHE_NAME = "ownerDetails";
+
+    private final Cache<Integer, OwnerDetails> cache;
+
+    public OwnerDetailsCache(@Value("${petclinic.gateway.owner-details.cache.maximum-size:10000}") long maximumSize,
+                             @Value("${petclinic.gateway.owner-details.cache.ttl:60s}") Duration ttl,
+                             MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public OwnerDetails get(int ownerId) {
+        return cache.getIfPresent(ownerId);
+    }
+
+    public void put(int ownerId, OwnerDetails ownerDetails) {
+        cache.put(ownerId, ownerDetails);
+    }
+
+    public void evict(int ownerId) {
+        cache.invalidate(ownerId);
+    }
+}
@@ -0,0 +1,95 @@
+package org.springframework.samples.petclinic.api.application;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces identical concurrent calls to the backend services: while a call is in flight, the same call made again
+ * subscribes to the pending one instead of going downstream.
+ * <p>
+ * A successful result can be shared for {@code petclinic.gateway.single-flight.window} after it arrived, which absorbs
+ * bursts of requests that miss each other by a few milliseconds. It defaults to zero, so that a response never
+ * predates the request, as a write going through the gateway would otherwise not be seen right away. Errors are
+ * never shared once received.
+ * <p>
+ * The downstream call runs on behalf of the first caller, with its context. It is cancelled once every caller sharing
+ * it has cancelled, for instance on its own timeout, so that a backend that does not answer holds neither a connection
+ * nor the key of the call. The {@code petclinic.gateway.single-flight} counter tells, per call, how many went
+ * {@code upstream} and how many were {@code coalesced}.
+ */
+@Component
+public class SingleFlight {
+
+    static final String METER_NAME = "petclinic.gateway.single-flight";
+
+    private final Map<Key, Mono<?>> calls = new ConcurrentHashMap<>();
+    private final Map<String, Counter> upstream = new ConcurrentHashMap<>();
+    private final Map<String, Counter> coalesced = new ConcurrentHashMap<>();
+    private final Duration window;
+    private final MeterRegistry meterRegistry;
+
+    public SingleFlight(@Value("${petclinic.gateway.single-flight.window:0ms}") Duration window,
+                        MeterRegistry meterRegistry) {
+        this.window = window;
+        this.meterRegistry = meterRegistry;
+        meterRegistry.gauge(METER_NAME + ".in-flight", calls, Map::size);
+    }
+
+    /**
+     * @param name the kind of call, used as the {@code call} tag of the metrics
+     * @param key  the arguments of the call; calls with the same name and an equal key are coalesced
+     * @param call builds the downstream call, only invoked when no identical call is pending
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> execute(String name, Object key, Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            final Key callKey = new Key(name, key);
+            final boolean[] started = {false};
+            final Mono<?> shared = calls.computeIfAbsent(callKey, k -> {
+                started[0] = true;
+                // released before the result is signalled, so that a caller receiving it cannot join the same call
+                return call.get()
+                    .doOnSuccess(result -> releaseAfterWindow(k))
+                    .doOnError(e -> calls.remove(k))
+                    .doOnCancel(() -> calls.remove(k))
+                    // reference counted: cancelled when the last caller cancels, the result kept for later ones
+                    .share();
+            });
+            counter(started[0] ? upstream : coalesced, name, started[0] ? "upstream" : "coalesced").increment();
+            return (Mono<T>) shared;
+        });
+    }
+
+    private void releaseAfterWindow(Key key) {
+        if (window.isZero()) {
+            calls.remove(key);
+        } else {
+            Schedulers.parallel().schedule(() -> calls.remove(key), window.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private Counter counter(Map<String, Counter> counters, String name, String result) {
+        return counters.computeIfAbsent(name, n -> Counter.builder(METER_NAME)
+            .description("Calls to the backend services, by whether they went downstream or joined an identical "
+                + "pending call")
+            .tag("call", n)
+            .tag("result", result)
+            .register(meterRegistry));
+    }
+
+    private record Key(
+        String name,
+        Object arguments
+    ) {
+    }
+}
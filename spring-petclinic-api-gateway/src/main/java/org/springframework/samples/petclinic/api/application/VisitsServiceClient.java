@@ -15,12 +15,17 @@
  */
 package org.springframework.samples.petclinic.api.application;
 
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.MediaType;
+import org.springframework.samples.petclinic.api.dto.PetVisits;
+import org.springframework.samples.petclinic.api.dto.VisitDetails;
 import org.springframework.samples.petclinic.api.dto.Visits;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
+import java.util.Map;
 
 import static java.util.stream.Collectors.joining;
 
@@ -33,21 +38,42 @@ public class VisitsServiceClient {
     // Could be changed for testing purpose
     private String hostname = "http://visits-service/";
 
-    private final WebClient.Builder webClientBuilder;
+    private final WebClient webClient;
+    private final SingleFlight singleFlight;
 
-    public VisitsServiceClient(WebClient.Builder webClientBuilder) {
-        this.webClientBuilder = webClientBuilder;
+    public VisitsServiceClient(@Qualifier("visitsServiceWebClientBuilder") WebClient.Builder webClientBuilder,
+                               SingleFlight singleFlight) {
+        this.webClient = webClientBuilder.build();
+        this.singleFlight = singleFlight;
     }
 
     public Mono<Visits> getVisitsForPets(final List<Integer> petIds) {
-        return webClientBuilder.build()
+        final String ids = joinIds(petIds);
+        return singleFlight.execute("visits.for-pets", ids, () -> webClient
             .get()
-            .uri(hostname + "pets/visits?petId={petId}", joinIds(petIds))
+            .uri(hostname + "pets/visits?petId={petId}", ids)
             .retrieve()
-            .bodyToMono(Visits.class);
+            .bodyToMono(Visits.class));
     }
 
-    private String joinIds(List<Integer> petIds) {
+    /**
+     * Bulk lookup posting the pet ids, answered with the visits already grouped by pet.
+     * Pets without visits are absent from the map.
+     */
+    public Mono<Map<Integer, List<VisitDetails>>> getVisitsByPet(final List<Integer> petIds) {
+        final List<Integer> ids = List.copyOf(petIds);
+        return singleFlight.execute("visits.by-pet", ids, () -> webClient
+            .post()
+            .uri(hostname + "pets/visits/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .accept(MediaType.APPLICATION_NDJSON)
+            .bodyValue(ids)
+            .retrieve()
+            .bodyToFlux(PetVisits.class)
+            .collectMap(PetVisits::petId, PetVisits::visits));
+    }
+
+    static String joinIds(List<Integer> petIds) {
         return petIds.stream().map(Object::toString).collect(joining(","));
     }
 
@@ -0,0 +1,121 @@
+package org.springframework.samples.petclinic.api.boundary.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.samples.petclinic.api.config.ResilienceProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.SignalType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounds the requests in flight on a route with an {@link AimdConcurrencyLimit}, so that a slow service sheds load
+ * instead of queueing requests until every caller times out. Requests over the limit are not sent downstream but
+ * forwarded to {@code fallbackUri}, answered with a 503 by {@link FallbackController}.
+ * <p>
+ * Each route has its own limit, configured by the {@code concurrency-limit} of its {@link ResilienceProperties}
+ * profile, so that a route expected to be slow, such as genai-service, is not mistaken for a congested one. It is
+ * exported with the requests in flight as the {@code petclinic.gateway.concurrency.limit} and
+ * {@code petclinic.gateway.concurrency.in-flight} gauges, and the rejected requests as the
+ * {@code petclinic.gateway.concurrency.rejected} counter, all tagged with the route id.
+ */
+@Component
+class AdaptiveConcurrencyLimitGatewayFilterFactory
+    extends AbstractGatewayFilterFactory<AdaptiveConcurrencyLimitGatewayFilterFactory.Config> {
+
+    private static final String METER_PREFIX = "petclinic.gateway.concurrency.";
+
+    private final Map<String, AimdConcurrencyLimit> limits = new ConcurrentHashMap<>();
+    private final ResilienceProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final FallbackForwarder fallbackForwarder;
+
+    AdaptiveConcurrencyLimitGatewayFilterFactory(ResilienceProperties properties, MeterRegistry meterRegistry,
+                                                 FallbackForwarder fallbackForwarder) {
+        super(Config.class);
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.fallbackForwarder = fallbackForwarder;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        final String routeId = config.getRouteId() == null ? "unknown" : config.getRouteId();
+        // kept across route refreshes, so that the limit learnt so far is not lost
+        final AimdConcurrencyLimit limit = limits.computeIfAbsent(routeId, id -> register(id, create(id)));
+        final Counter rejected = Counter.builder(METER_PREFIX + "rejected")
+            .description("Requests not sent downstream because the route was at its concurrency limit")
+            .tag("route", routeId)
+            .register(meterRegistry);
+
+        return (exchange, chain) -> {
+            if (!limit.tryAcquire()) {
+                rejected.increment();
+                return fallbackForwarder.forward(exchange, config.getFallbackUri());
+            }
+            final long start = System.nanoTime();
+            return chain.filter(exchange)
+                .doFinally(signal -> {
+                    if (signal == SignalType.CANCEL) {
+                        limit.ignore();
+                    } else {
+                        limit.release(System.nanoTime() - start, signal == SignalType.ON_ERROR || isServerError(exchange));
+                    }
+                });
+        };
+    }
+
+    private AimdConcurrencyLimit create(String routeId) {
+        ResilienceProperties.ConcurrencyLimit settings = properties.profile(routeId).concurrencyLimitConfig();
+        return new AimdConcurrencyLimit(settings.initialLimit(), settings.minLimit(), settings.maxLimit(),
+            settings.backoffRatio(), settings.latencyThreshold());
+    }
+
+    private AimdConcurrencyLimit register(String routeId, AimdConcurrencyLimit limit) {
+        Gauge.builder(METER_PREFIX + "limit", limit, AimdConcurrencyLimit::limit)
+            .description("Requests allowed in flight on the route")
+            .tag("route", routeId)
+            .register(meterRegistry);
+        Gauge.builder(METER_PREFIX + "in-flight", limit, AimdConcurrencyLimit::inFlight)
+            .description("Requests in flight on the route")
+            .tag("route", routeId)
+            .register(meterRegistry);
+        return limit;
+    }
+
+    private static boolean isServerError(ServerWebExchange exchange) {
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        return status != null && status.is5xxServerError();
+    }
+
+    public static class Config implements HasRouteId {
+
+        private String routeId;
+        private String fallbackUri = "forward:/fallback/overloaded";
+
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+
+        public String getFallbackUri() {
+            return fallbackUri;
+        }
+
+        public void setFallbackUri(String fallbackUri) {
+            this.fallbackUri = fallbackUri;
+        }
+    }
+}
@@ -1,45 +1,107 @@
 package org.springframework.samples.petclinic.api.boundary.web;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreakerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.samples.petclinic.api.application.CustomersServiceClient;
+import org.springframework.samples.petclinic.api.application.OwnerDetailsCache;
+import org.springframework.samples.petclinic.api.application.VisitsServiceClient;
 import org.springframework.samples.petclinic.api.dto.OwnerDetails;
 import org.springframework.samples.petclinic.api.dto.PetDetails;
 import org.springframework.samples.petclinic.api.dto.VisitDetails;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Mono;
 
-import java.util.Collections;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
 
+/**
+ * Aggregates an owner from customers-service with the visits of all of its pets from visits-service.
+ * <p>
+ * Each downstream leg has its own timeout. A slow or failing visits-service degrades to an owner
+ * whose pets have no visits, whereas the owner itself is mandatory. Complete aggregates are served
+ * from the {@link OwnerDetailsCache} until they expire or a write for the owner evicts them.
+ */
 @RestController
+@RequestMapping("/api/gateway")
 public class ApiGatewayController {
 
-    @GetMapping("/api/gateway/health")
+    private final CustomersServiceClient customersServiceClient;
+
+    private final VisitsServiceClient visitsServiceClient;
+
+    private final ReactiveCircuitBreakerFactory<?, ?> cbFactory;
+
+    private final OwnerDetailsCache ownerDetailsCache;
+
+    private final Duration customersTimeout;
+
+    private final Duration visitsTimeout;
+
+    public ApiGatewayController(CustomersServiceClient customersServiceClient,
+                                VisitsServiceClient visitsServiceClient,
+                                ReactiveCircuitBreakerFactory<?, ?> cbFactory,
+                                OwnerDetailsCache ownerDetailsCache,
+                                @Value("${petclinic.gateway.owner-details.customers-timeout:3s}") Duration customersTimeout,
+                                @Value("${petclinic.gateway.owner-details.visits-timeout:1s}") Duration visitsTimeout) {
+        this.customersServiceClient = customersServiceClient;
+        this.visitsServiceClient = visitsServiceClient;
+        this.cbFactory = cbFactory;
+        this.ownerDetailsCache = ownerDetailsCache;
+        this.customersTimeout = customersTimeout;
+        this.visitsTimeout = visitsTimeout;
+    }
+
+    @GetMapping("/health")
     public String health() {
         return "API Gateway is up!";
     }
 
-    @GetMapping("/api/gateway/owners/{ownerId}")
-    public Mono<OwnerDetails> getOwner(@PathVariable int ownerId) {
-        PetDetails.PetDetailsBuilder petBuilder = PetDetails.PetDetailsBuilder.aPetDetails()
-                .id(20)
-                .name("Garfield");
-
-        if (ownerId == 1) {
-            // ✅ ownerId 1 → success case with a visit
-            VisitDetails visit = new VisitDetails(300, 20, null, "First visit");
-            petBuilder.visits(List.of(visit));
-        } else {
-            // ❌ ownerId != 1 → simulate visit service error (empty visits list)
-            petBuilder.visits(Collections.emptyList());
+    @GetMapping("/owners/{ownerId}")
+    public Mono<OwnerDetails> getOwnerDetails(final @PathVariable int ownerId) {
+        final OwnerDetails cached = ownerDetailsCache.get(ownerId);
+        if (cached != null) {
+            return Mono.just(cached);
         }
+        return customersServiceClient.getOwner(ownerId)
+            .timeout(customersTimeout)
+            .onErrorMap(TimeoutException.class,
+                e -> new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "customers-service did not answer in time", e))
+            .flatMap(owner -> aggregate(owner)
+                .doOnNext(ownerDetails -> ownerDetailsCache.put(ownerId, ownerDetails))
+                // visits-service unavailable: serve the owner without visits and leave it out of the cache
+                .defaultIfEmpty(owner));
+    }
 
-        PetDetails cat = petBuilder.build();
+    private Mono<OwnerDetails> aggregate(OwnerDetails owner) {
+        if (owner.getPetIds().isEmpty()) {
+            return Mono.just(owner);
+        }
+        return visitsForPets(owner.getPetIds())
+            .map(visits -> addVisitsToOwner(owner, visits));
+    }
 
-        OwnerDetails owner = OwnerDetails.OwnerDetailsBuilder.anOwnerDetails()
-                .pets(List.of(cat))
-                .build();
+    /**
+     * @return the visits of the given pets, or an empty {@link Mono} when visits-service failed or timed out
+     */
+    private Mono<Map<Integer, List<VisitDetails>>> visitsForPets(List<Integer> petIds) {
+        return visitsServiceClient.getVisitsByPet(petIds)
+            .timeout(visitsTimeout)
+            .transform(it -> cbFactory.create("getOwnerDetails").run(it, throwable -> Mono.empty()));
+    }
 
-        return Mono.just(owner);
+    static OwnerDetails addVisitsToOwner(OwnerDetails owner, Map<Integer, List<VisitDetails>> visitsByPetId) {
+        final List<PetDetails> pets = owner.pets().stream()
+            .map(pet -> new PetDetails(pet.id(), pet.name(), pet.birthDate(), pet.type(),
+                visitsByPetId.getOrDefault(pet.id(), List.of())))
+            .toList();
+        return new OwnerDetails(owner.id(), owner.firstName(), owner.lastName(), owner.address(),
+            owner.city(), owner.telephone(), pets);
     }
 }
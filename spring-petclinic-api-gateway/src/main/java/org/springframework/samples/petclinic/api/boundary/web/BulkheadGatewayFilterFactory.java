@@ -0,0 +1,76 @@
+package org.springframework.samples.petclinic.api.boundary.web;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.samples.petclinic.api.config.ResilienceProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Semaphore bulkhead sized by the {@code max-concurrent-calls} of the route's {@link ResilienceProperties} profile,
+ * so that one slow service cannot hold all the connections of the gateway. Calls over it are rejected right away
+ * and forwarded to {@code fallbackUri}; routes without {@code max-concurrent-calls} are not bounded.
+ * <p>
+ * The bulkheads are named after the route and live in the Resilience4j {@link BulkheadRegistry}, which publishes
+ * them in the {@code resilience4j.bulkhead.*} meters.
+ */
+@Component
+class BulkheadGatewayFilterFactory extends AbstractGatewayFilterFactory<BulkheadGatewayFilterFactory.Config> {
+
+    private final ResilienceProperties properties;
+    private final BulkheadRegistry bulkheadRegistry;
+    private final FallbackForwarder fallbackForwarder;
+
+    BulkheadGatewayFilterFactory(ResilienceProperties properties, ObjectProvider<BulkheadRegistry> bulkheadRegistry,
+                                 FallbackForwarder fallbackForwarder) {
+        super(Config.class);
+        this.properties = properties;
+        this.bulkheadRegistry = bulkheadRegistry.getIfAvailable(BulkheadRegistry::ofDefaults);
+        this.fallbackForwarder = fallbackForwarder;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        final BulkheadConfig bulkheadConfig = config.getRouteId() == null ? null
+            : properties.profile(config.getRouteId()).bulkheadConfig();
+        if (bulkheadConfig == null) {
+            return (exchange, chain) -> chain.filter(exchange);
+        }
+        final Bulkhead bulkhead = bulkheadRegistry.bulkhead(config.getRouteId(), bulkheadConfig);
+        return (exchange, chain) -> {
+            if (!bulkhead.tryAcquirePermission()) {
+                return fallbackForwarder.forward(exchange, config.getFallbackUri());
+            }
+            return chain.filter(exchange)
+                .doFinally(signal -> bulkhead.onComplete());
+        };
+    }
+
+    public static class Config implements HasRouteId {
+
+        private String routeId;
+        private String fallbackUri = "forward:/fallback/overloaded";
+
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+
+        public String getFallbackUri() {
+            return fallbackUri;
+        }
+
+        public void setFallbackUri(String fallbackUri) {
+            this.fallbackUri = fallbackUri;
+        }
+    }
+}
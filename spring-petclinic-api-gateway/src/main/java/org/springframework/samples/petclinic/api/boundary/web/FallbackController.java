@@ -2,7 +2,9 @@ package org.springframework.samples.petclinic.api.boundary.web;
 
 import org.apache.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -13,4 +15,14 @@ public class FallbackController {
         return ResponseEntity.status(HttpStatus.SC_SERVICE_UNAVAILABLE)
                 .body("Chat is currently unavailable. Please try again later.");
     }
+
+    /**
+     * Answers the requests shed by {@link AdaptiveConcurrencyLimitGatewayFilterFactory}, whatever their method.
+     */
+    @RequestMapping("/fallback/overloaded")
+    public ResponseEntity<String> overloaded() {
+        return ResponseEntity.status(HttpStatus.SC_SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("The service is overloaded. Please try again later.");
+    }
 }
@@ -0,0 +1,41 @@
+package org.springframework.samples.petclinic.api.boundary.web;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.DispatcherHandler;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+
+/**
+ * Hands a request the gateway refuses to route over to a local fallback endpoint, the way the
+ * {@code CircuitBreaker} filter does with its {@code fallbackUri}.
+ */
+@Component
+class FallbackForwarder {
+
+    private final ObjectProvider<DispatcherHandler> dispatcherHandler;
+
+    FallbackForwarder(ObjectProvider<DispatcherHandler> dispatcherHandler) {
+        this.dispatcherHandler = dispatcherHandler;
+    }
+
+    /**
+     * @param fallbackUri the path of the fallback endpoint, optionally prefixed with {@code forward:}
+     */
+    Mono<Void> forward(ServerWebExchange exchange, String fallbackUri) {
+        URI fallbackUrl = UriComponentsBuilder.fromUri(exchange.getRequest().getURI())
+            .replacePath(fallbackUri.replaceFirst("^forward:", ""))
+            .replaceQuery(null)
+            .build(true)
+            .toUri();
+        exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, fallbackUrl);
+        ServerHttpRequest request = exchange.getRequest().mutate().uri(fallbackUrl).build();
+        return dispatcherHandler.getObject().handle(exchange.mutate().request(request).build());
+    }
+}
@@ -0,0 +1,51 @@
+package org.springframework.samples.petclinic.api.boundary.web;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.samples.petclinic.api.application.OwnerDetailsCache;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+/**
+ * Evicts an owner from the {@link OwnerDetailsCache} once a write routed to customers-service or
+ * visits-service for that owner (owner, pet or visit update) has completed.
+ */
+@Component
+class OwnerDetailsCacheInvalidationFilter implements GlobalFilter, Ordered {
+
+    private static final PathPattern OWNER_WRITE_PATH =
+        PathPatternParser.defaultInstance.parse("/api/{service:customer|visit}/owners/{ownerId:\\d{1,9}}/**");
+
+    private final OwnerDetailsCache ownerDetailsCache;
+
+    OwnerDetailsCacheInvalidationFilter(OwnerDetailsCache ownerDetailsCache) {
+        this.ownerDetailsCache = ownerDetailsCache;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (HttpMethod.GET.equals(exchange.getRequest().getMethod())) {
+            return chain.filter(exchange);
+        }
+        // Read the path before StripPrefix rewrites it
+        PathPattern.PathMatchInfo match =
+            OWNER_WRITE_PATH.matchAndExtract(PathContainer.parsePath(exchange.getRequest().getPath().value()));
+        if (match == null) {
+            return chain.filter(exchange);
+        }
+        int ownerId = Integer.parseInt(match.getUriVariables().get("ownerId"));
+        return chain.filter(exchange)
+            .doFinally(signal -> ownerDetailsCache.evict(ownerId));
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
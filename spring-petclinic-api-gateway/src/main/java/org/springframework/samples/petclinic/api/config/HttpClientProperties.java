@@ -0,0 +1,34 @@
+package org.springframework.samples.petclinic.api.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Connection pool settings of the {@code WebClient}s the gateway uses to call downstream services,
+ * keyed by service id. Services without an entry use {@code defaults}.
+ */
+@ConfigurationProperties(prefix = "petclinic.http-client")
+public record HttpClientProperties(
+    @DefaultValue Pool defaults,
+    Map<String, Pool> services
+) {
+
+    public Pool pool(String serviceId) {
+        return services == null ? defaults : services.getOrDefault(serviceId, defaults);
+    }
+
+    public record Pool(
+        @DefaultValue("100") int maxConnections,
+        @DefaultValue("500") int pendingAcquireMaxCount,
+        @DefaultValue("5s") Duration pendingAcquireTimeout,
+        @DefaultValue("30s") Duration maxIdleTime,
+        @DefaultValue("10m") Duration maxLifeTime,
+        @DefaultValue("60s") Duration evictInBackground,
+        @DefaultValue("true") boolean keepAlive,
+        @DefaultValue("false") boolean http2
+    ) {
+    }
+}
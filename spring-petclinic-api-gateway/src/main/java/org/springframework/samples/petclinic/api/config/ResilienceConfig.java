@@ -0,0 +1,44 @@
+package org.springframework.samples.petclinic.api.config;
+
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedTimeLimiterMetrics;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.circuitbreaker.resilience4j.ReactiveResilience4JCircuitBreakerFactory;
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JConfigBuilder;
+import org.springframework.cloud.client.circuitbreaker.Customizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configures each circuit breaker and time limiter from its {@link ResilienceProperties} profile. The gateway routes
+ * use their route id as circuit breaker id, so every route trips, and is reported in the
+ * {@code resilience4j.circuitbreaker.*} and {@code resilience4j.timelimiter.*} meters, on its own.
+ * <p>
+ * The meters are bound to the registries the circuit breaker factory actually uses, which are not necessarily the
+ * ones of the Resilience4j auto-configuration.
+ */
+@Configuration
+@EnableConfigurationProperties(ResilienceProperties.class)
+public class ResilienceConfig {
+
+    @Bean
+    Customizer<ReactiveResilience4JCircuitBreakerFactory> resilienceProfilesCustomizer(ResilienceProperties properties) {
+        return factory -> factory.configureDefault(id -> {
+            ResilienceProperties.Profile profile = properties.profile(id);
+            return new Resilience4JConfigBuilder(id)
+                .circuitBreakerConfig(profile.circuitBreakerConfig())
+                .timeLimiterConfig(profile.timeLimiterConfig())
+                .build();
+        });
+    }
+
+    @Bean
+    TaggedCircuitBreakerMetrics taggedCircuitBreakerMetrics(ReactiveResilience4JCircuitBreakerFactory factory) {
+        return TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(factory.getCircuitBreakerRegistry());
+    }
+
+    @Bean
+    TaggedTimeLimiterMetrics taggedTimeLimiterMetrics(ReactiveResilience4JCircuitBreakerFactory factory) {
+        return TaggedTimeLimiterMetrics.ofTimeLimiterRegistry(factory.getTimeLimiterRegistry());
+    }
+}
@@ -0,0 +1,153 @@
+package org.springframework.samples.petclinic.api.config;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Circuit breaker, time limiter, bulkhead and concurrency limit settings, keyed by circuit breaker id: the route id
+ * for the gateway routes. A setting missing from a route is taken from {@code defaults}, then from the Resilience4j
+ * defaults.
+ */
+@ConfigurationProperties(prefix = "petclinic.resilience")
+public record ResilienceProperties(
+    Profile defaults,
+    Map<String, Profile> routes
+) {
+
+    /**
+     * @return the settings of the route, falling back to {@code defaults} setting by setting
+     */
+    public Profile profile(String id) {
+        Profile route = routes == null ? null : routes.get(id);
+        if (defaults == null) {
+            return route == null ? Profile.NONE : route;
+        }
+        return route == null ? defaults : route.orElse(defaults);
+    }
+
+    /**
+     * @param timeout                   time limit of a call
+     * @param slidingWindowSize         number of calls the failure and slow call rates are computed on
+     * @param minimumNumberOfCalls      calls needed in the window before the rates are considered
+     * @param failureRateThreshold      failure percentage opening the circuit
+     * @param slowCallDurationThreshold duration from which a call counts as slow
+     * @param slowCallRateThreshold     slow call percentage opening the circuit
+     * @param waitDurationInOpenState   how long the circuit stays open before letting trial calls through
+     * @param maxConcurrentCalls        size of the semaphore bulkhead, none when unset. A call over it is rejected
+     *                                  right away, as waiting for a permit would block an event loop thread
+     * @param concurrencyLimit          adaptive limit of the requests in flight, below the bulkhead
+     */
+    public record Profile(
+        Duration timeout,
+        Integer slidingWindowSize,
+        Integer minimumNumberOfCalls,
+        Float failureRateThreshold,
+        Duration slowCallDurationThreshold,
+        Float slowCallRateThreshold,
+        Duration waitDurationInOpenState,
+        Integer maxConcurrentCalls,
+        ConcurrencyLimit concurrencyLimit
+    ) {
+
+        static final Profile NONE = new Profile(null, null, null, null, null, null, null, null, null);
+
+        public CircuitBreakerConfig circuitBreakerConfig() {
+            CircuitBreakerConfig.Builder builder = CircuitBreakerConfig.custom();
+            if (slidingWindowSize != null) {
+                builder.slidingWindowSize(slidingWindowSize);
+            }
+            if (minimumNumberOfCalls != null) {
+                builder.minimumNumberOfCalls(minimumNumberOfCalls);
+            }
+            if (failureRateThreshold != null) {
+                builder.failureRateThreshold(failureRateThreshold);
+            }
+            if (slowCallDurationThreshold != null) {
+                builder.slowCallDurationThreshold(slowCallDurationThreshold);
+            }
+            if (slowCallRateThreshold != null) {
+                builder.slowCallRateThreshold(slowCallRateThreshold);
+            }
+            if (waitDurationInOpenState != null) {
+                builder.waitDurationInOpenState(waitDurationInOpenState);
+            }
+            return builder.build();
+        }
+
+        public TimeLimiterConfig timeLimiterConfig() {
+            TimeLimiterConfig.Builder builder = TimeLimiterConfig.custom();
+            if (timeout != null) {
+                builder.timeoutDuration(timeout);
+            }
+            return builder.build();
+        }
+
+        /**
+         * @return the bulkhead settings, or {@code null} when the calls are not bounded
+         */
+        public BulkheadConfig bulkheadConfig() {
+            if (maxConcurrentCalls == null) {
+                return null;
+            }
+            return BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(Duration.ZERO)
+                .build();
+        }
+
+        /**
+         * @return the concurrency limit settings, those missing taken from {@link ConcurrencyLimit#DEFAULTS}
+         */
+        public ConcurrencyLimit concurrencyLimitConfig() {
+            return concurrencyLimit == null ? ConcurrencyLimit.DEFAULTS
+                : concurrencyLimit.orElse(ConcurrencyLimit.DEFAULTS);
+        }
+
+        Profile orElse(Profile other) {
+            return new Profile(
+                timeout != null ? timeout : other.timeout,
+                slidingWindowSize != null ? slidingWindowSize : other.slidingWindowSize,
+                minimumNumberOfCalls != null ? minimumNumberOfCalls : other.minimumNumberOfCalls,
+                failureRateThreshold != null ? failureRateThreshold : other.failureRateThreshold,
+                slowCallDurationThreshold != null ? slowCallDurationThreshold : other.slowCallDurationThreshold,
+                slowCallRateThreshold != null ? slowCallRateThreshold : other.slowCallRateThreshold,
+                waitDurationInOpenState != null ? waitDurationInOpenState : other.waitDurationInOpenState,
+                maxConcurrentCalls != null ? maxConcurrentCalls : other.maxConcurrentCalls,
+                concurrencyLimit == null || other.concurrencyLimit == null
+                    ? (concurrencyLimit != null ? concurrencyLimit : other.concurrencyLimit)
+                    : concurrencyLimit.orElse(other.concurrencyLimit));
+        }
+    }
+
+    /**
+     * @param initialLimit     requests allowed in flight before any latency is measured
+     * @param minLimit         floor of the limit, however slow the route
+     * @param maxLimit         ceiling of the limit, at most the bulkhead of the route
+     * @param backoffRatio     factor applied to the limit when a request fails or exceeds {@code latencyThreshold}
+     * @param latencyThreshold latency from which a request counts as congested, to fit the timeout of the route
+     */
+    public record ConcurrencyLimit(
+        Integer initialLimit,
+        Integer minLimit,
+        Integer maxLimit,
+        Double backoffRatio,
+        Duration latencyThreshold
+    ) {
+
+        static final ConcurrencyLimit DEFAULTS = new ConcurrencyLimit(20, 5, 200, 0.9, Duration.ofSeconds(1));
+
+        ConcurrencyLimit orElse(ConcurrencyLimit other) {
+            return new ConcurrencyLimit(
+                initialLimit != null ? initialLimit : other.initialLimit,
+                minLimit != null ? minLimit : other.minLimit,
+                maxLimit != null ? maxLimit : other.maxLimit,
+                backoffRatio != null ? backoffRatio : other.backoffRatio,
+                latencyThreshold != null ? latencyThreshold : other.latencyThreshold);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package org.springframework.samples.petclinic.api.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * One load-balanced {@link WebClient.Builder} per downstream service, each backed by its own
+ * Reactor Netty {@link ConnectionProvider}. Pool gauges (active, idle and pending connections) are
+ * published to Micrometer under {@code reactor.netty.connection.provider.*}, tagged with the pool name.
+ */
+@Configuration
+@EnableConfigurationProperties(HttpClientProperties.class)
+public class WebClientConfig {
+
+    public static final String CUSTOMERS_SERVICE = "customers-service";
+
+    public static final String VISITS_SERVICE = "visits-service";
+
+    @Bean(destroyMethod = "dispose")
+    ConnectionProvider customersServiceConnectionProvider(HttpClientProperties properties) {
+        return connectionProvider(CUSTOMERS_SERVICE, properties.pool(CUSTOMERS_SERVICE));
+    }
+
+    @Bean(destroyMethod = "dispose")
+    ConnectionProvider visitsServiceConnectionProvider(HttpClientProperties properties) {
+        return connectionProvider(VISITS_SERVICE, properties.pool(VISITS_SERVICE));
+    }
+
+    @Bean
+    @LoadBalanced
+    WebClient.Builder customersServiceWebClientBuilder(ConnectionProvider customersServiceConnectionProvider,
+                                                       HttpClientProperties properties) {
+        return webClientBuilder(customersServiceConnectionProvider, properties.pool(CUSTOMERS_SERVICE));
+    }
+
+    @Bean
+    @LoadBalanced
+    WebClient.Builder visitsServiceWebClientBuilder(ConnectionProvider visitsServiceConnectionProvider,
+                                                    HttpClientProperties properties) {
+        return webClientBuilder(visitsServiceConnectionProvider, properties.pool(VISITS_SERVICE));
+    }
+
+    private static ConnectionProvider connectionProvider(String name, HttpClientProperties.Pool pool) {
+        return ConnectionProvider.builder(name)
+            .maxConnections(pool.maxConnections())
+            .pendingAcquireMaxCount(pool.pendingAcquireMaxCount())
+            .pendingAcquireTimeout(pool.pendingAcquireTimeout())
+            .maxIdleTime(pool.maxIdleTime())
+            .maxLifeTime(pool.maxLifeTime())
+            .evictInBackground(pool.evictInBackground())
+            .metrics(true)
+            .build();
+    }
+
+    private static WebClient.Builder webClientBuilder(ConnectionProvider connectionProvider, HttpClientProperties.Pool pool) {
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+            .keepAlive(pool.keepAlive());
+        if (pool.http2()) {
+            // h2c with fallback to HTTP/1.1 when the service does not accept the upgrade
+            httpClient = httpClient.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11);
+        }
+        return WebClient.builder()
+            .clientConnector(new ReactorClientHttpConnector(httpClient));
+    }
+}
@@ -0,0 +1,11 @@
+package org.springframework.samples.petclinic.api.dto;
+
+import java.util.List;
+
+/**
+ * The visits of one pet, as streamed by the visits-service batch lookup.
+ */
+public record PetVisits(
+    Integer petId,
+    List<VisitDetails> visits) {
+}
@@ -3,8 +3,17 @@
 angular.module('ownerList')
     .controller('OwnerListController', ['$http', function ($http) {
         var self = this;
+        var pageSize = 50;
 
-        $http.get('api/customer/owners').then(function (resp) {
-            self.owners = resp.data;
-        });
+        self.owners = [];
+        self.next = 0;
+
+        self.loadMore = function () {
+            $http.get('api/customer/owners/page', {params: {after: self.next, limit: pageSize}}).then(function (resp) {
+                self.owners = self.owners.concat(resp.data.items);
+                self.next = resp.data.next;
+            });
+        };
+
+        self.loadMore();
     }]);
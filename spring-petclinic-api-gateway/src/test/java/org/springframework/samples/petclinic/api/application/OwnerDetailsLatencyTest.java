@@ -0,0 +1,143 @@
+package org.springframework.samples.petclinic.api.application;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.circuitbreaker.resilience4j.ReactiveResilience4JCircuitBreakerFactory;
+import org.springframework.samples.petclinic.api.boundary.web.ApiGatewayController;
+import org.springframework.samples.petclinic.api.dto.OwnerDetails;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the owner aggregation against MockWebServer stand-ins for customers-service and visits-service.
+ */
+class OwnerDetailsLatencyTest {
+
+    private static final String OWNER_JSON = """
+        {"id":1,"firstName":"George","lastName":"Franklin","address":"110 W. Liberty St.","city":"Madison",
+         "telephone":"6085551023","pets":[{"id":1,"name":"Leo","birthDate":"2010-09-07","type":{"name":"cat"}},
+         {"id":2,"name":"Basil","birthDate":"2012-08-06","type":{"name":"hamster"}}]}""";
+
+    private static final String VISITS_NDJSON = """
+        {"petId":1,"visits":[{"id":1,"petId":1,"date":"2013-01-01","description":"rabies shot"},{"id":3,"petId":1,"date":"2013-01-04","description":"spayed"}]}
+        {"petId":2,"visits":[{"id":2,"petId":2,"date":"2013-01-02","description":"neutered"}]}
+        """;
+
+    private static final Duration VISITS_TIMEOUT = Duration.ofMillis(300);
+
+    private MockWebServer customersServer;
+
+    private MockWebServer visitsServer;
+
+    private OwnerDetailsCache ownerDetailsCache;
+
+    private ApiGatewayController controller;
+
+    @BeforeEach
+    void setUp() {
+        customersServer = new MockWebServer();
+        visitsServer = new MockWebServer();
+
+        SingleFlight singleFlight = new SingleFlight(Duration.ZERO, new SimpleMeterRegistry());
+        CustomersServiceClient customersServiceClient = new CustomersServiceClient(WebClient.builder(), singleFlight);
+        customersServiceClient.setHostname(customersServer.url("/").toString());
+        VisitsServiceClient visitsServiceClient = new VisitsServiceClient(WebClient.builder(), singleFlight);
+        visitsServiceClient.setHostname(visitsServer.url("/").toString());
+
+        ReactiveResilience4JCircuitBreakerFactory cbFactory = new ReactiveResilience4JCircuitBreakerFactory(
+            CircuitBreakerRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults());
+        ownerDetailsCache = new OwnerDetailsCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        controller = new ApiGatewayController(customersServiceClient, visitsServiceClient, cbFactory,
+            ownerDetailsCache, Duration.ofSeconds(2), VISITS_TIMEOUT);
+    }
+
+    @AfterEach
+    void shutdown() throws IOException {
+        customersServer.shutdown();
+        visitsServer.shutdown();
+    }
+
+    @Test
+    void mergesVisitsOfAllPetsWithOneBatchedCall() throws InterruptedException {
+        customersServer.enqueue(json(OWNER_JSON));
+        visitsServer.enqueue(ndjson(VISITS_NDJSON));
+
+        OwnerDetails owner = controller.getOwnerDetails(1).block(Duration.ofSeconds(5));
+
+        assertEquals(2, owner.pets().size());
+        assertEquals(2, owner.pets().get(0).visits().size());
+        assertEquals("neutered", owner.pets().get(1).visits().get(0).description());
+        assertEquals(1, visitsServer.getRequestCount());
+        RecordedRequest request = visitsServer.takeRequest();
+        assertEquals("/pets/visits/batch", request.getPath());
+        assertEquals("[1,2]", request.getBody().readUtf8());
+    }
+
+    @Test
+    void slowVisitsServiceDegradesToEmptyVisitsWithinTimeout() {
+        customersServer.enqueue(json(OWNER_JSON));
+        visitsServer.enqueue(ndjson(VISITS_NDJSON).setHeadersDelay(5, TimeUnit.SECONDS));
+
+        long start = System.nanoTime();
+        OwnerDetails owner = controller.getOwnerDetails(1).block(Duration.ofSeconds(5));
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        assertEquals("Franklin", owner.lastName());
+        assertTrue(owner.pets().stream().allMatch(pet -> pet.visits().isEmpty()));
+        assertTrue(elapsed.compareTo(VISITS_TIMEOUT.plusSeconds(1)) < 0, "took " + elapsed);
+        assertNull(ownerDetailsCache.get(1));
+    }
+
+    @Test
+    void repeatedViewIsServedFromCacheUntilEvicted() {
+        customersServer.enqueue(json(OWNER_JSON));
+        visitsServer.enqueue(ndjson(VISITS_NDJSON));
+        customersServer.enqueue(json(OWNER_JSON));
+        visitsServer.enqueue(ndjson(VISITS_NDJSON));
+
+        controller.getOwnerDetails(1).block(Duration.ofSeconds(5));
+        controller.getOwnerDetails(1).block(Duration.ofSeconds(5));
+        assertEquals(1, customersServer.getRequestCount());
+        assertEquals(1, visitsServer.getRequestCount());
+
+        ownerDetailsCache.evict(1);
+        controller.getOwnerDetails(1).block(Duration.ofSeconds(5));
+        assertEquals(2, customersServer.getRequestCount());
+    }
+
+    @Test
+    void ownerWithoutPetsSkipsVisitsService() {
+        customersServer.enqueue(json("{\"id\":1,\"firstName\":\"Jean\",\"lastName\":\"Coleman\",\"pets\":[]}"));
+
+        OwnerDetails owner = controller.getOwnerDetails(1).block(Duration.ofSeconds(5));
+
+        assertTrue(owner.pets().isEmpty());
+        assertEquals(0, visitsServer.getRequestCount());
+    }
+
+    private static MockResponse ndjson(String body) {
+        return new MockResponse()
+            .setHeader("Content-Type", "application/x-ndjson")
+            .setBody(body);
+    }
+
+    private static MockResponse json(String body) {
+        return new MockResponse()
+            .setHeader("Content-Type", "application/json")
+            .setBody(body);
+    }
+}
@@ -0,0 +1,148 @@
+package org.springframework.samples.petclinic.api.application;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.SocketPolicy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.samples.petclinic.api.dto.OwnerDetails;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Counts the requests received by a MockWebServer standing in for customers-service.
+ */
+class SingleFlightTest {
+
+    private static final String OWNER_JSON = """
+        {"id":1,"firstName":"George","lastName":"Franklin","address":"110 W. Liberty St.","city":"Madison",
+         "telephone":"6085551023","pets":[]}""";
+
+    private MockWebServer server;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        server = new MockWebServer();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void shutdown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    void concurrentIdenticalCallsShareOneRequest() {
+        CustomersServiceClient client = client(Duration.ZERO);
+        server.enqueue(owner().setBodyDelay(300, TimeUnit.MILLISECONDS));
+
+        List<OwnerDetails> owners = Flux.range(0, 10)
+            .flatMap(i -> client.getOwner(1))
+            .collectList()
+            .block(Duration.ofSeconds(5));
+
+        assertEquals(10, owners.size());
+        owners.forEach(owner -> assertEquals("Franklin", owner.lastName()));
+        assertEquals(1, server.getRequestCount());
+        assertEquals(1, count("upstream"));
+        assertEquals(9, count("coalesced"));
+    }
+
+    @Test
+    void differentCallsAreNotShared() {
+        CustomersServiceClient client = client(Duration.ZERO);
+        server.enqueue(owner().setBodyDelay(300, TimeUnit.MILLISECONDS));
+        server.enqueue(owner().setBodyDelay(300, TimeUnit.MILLISECONDS));
+
+        Flux.merge(client.getOwner(1), client.getOwner(2)).blockLast(Duration.ofSeconds(5));
+
+        assertEquals(2, server.getRequestCount());
+        assertEquals(0, count("coalesced"));
+    }
+
+    @Test
+    void completedCallIsNotSharedWithoutWindow() {
+        CustomersServiceClient client = client(Duration.ZERO);
+        server.enqueue(owner());
+        server.enqueue(owner());
+
+        client.getOwner(1).block(Duration.ofSeconds(5));
+        client.getOwner(1).block(Duration.ofSeconds(5));
+
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    void completedCallIsSharedWithinWindow() {
+        CustomersServiceClient client = client(Duration.ofSeconds(10));
+        server.enqueue(owner());
+
+        client.getOwner(1).block(Duration.ofSeconds(5));
+        OwnerDetails owner = client.getOwner(1).block(Duration.ofSeconds(5));
+
+        assertEquals("Franklin", owner.lastName());
+        assertEquals(1, server.getRequestCount());
+        assertEquals(1, count("coalesced"));
+    }
+
+    @Test
+    void failedCallIsNotSharedAfterwards() {
+        CustomersServiceClient client = client(Duration.ofSeconds(10));
+        server.enqueue(new MockResponse().setResponseCode(500));
+        server.enqueue(owner());
+
+        assertThrows(RuntimeException.class, () -> client.getOwner(1).block(Duration.ofSeconds(5)));
+        OwnerDetails owner = client.getOwner(1).block(Duration.ofSeconds(5));
+
+        assertEquals("Franklin", owner.lastName());
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    void callIsCancelledOnceEveryCallerGaveUp() {
+        CustomersServiceClient client = client(Duration.ofSeconds(10));
+        server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE));
+        server.enqueue(owner());
+
+        assertThrows(RuntimeException.class, () -> Flux.range(0, 3)
+            .flatMap(i -> client.getOwner(1).timeout(Duration.ofMillis(200)))
+            .blockLast(Duration.ofSeconds(5)));
+
+        assertEquals(0, meterRegistry.get(SingleFlight.METER_NAME + ".in-flight").gauge().value());
+        OwnerDetails owner = client.getOwner(1).block(Duration.ofSeconds(5));
+        assertEquals("Franklin", owner.lastName());
+        assertEquals(2, server.getRequestCount());
+        assertEquals(2, count("upstream"));
+    }
+
+    private CustomersServiceClient client(Duration window) {
+        CustomersServiceClient client = new CustomersServiceClient(WebClient.builder(),
+            new SingleFlight(window, meterRegistry));
+        client.setHostname(server.url("/").toString());
+        return client;
+    }
+
+    private static MockResponse owner() {
+        return new MockResponse().setHeader("Content-Type", "application/json").setBody(OWNER_JSON);
+    }
+
+    private double count(String result) {
+        Counter counter = meterRegistry.find(SingleFlight.METER_NAME)
+            .tags("call", "customers.owner", "result", result)
+            .counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
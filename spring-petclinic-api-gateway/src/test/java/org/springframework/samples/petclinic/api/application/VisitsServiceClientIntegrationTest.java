@@ -1,16 +1,22 @@
 package org.springframework.samples.petclinic.api.application;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.springframework.samples.petclinic.api.dto.VisitDetails;
 import org.springframework.samples.petclinic.api.dto.Visits;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -27,7 +33,8 @@ class VisitsServiceClientIntegrationTest {
     @BeforeEach
     void setUp() {
         server = new MockWebServer();
-        visitsServiceClient = new VisitsServiceClient(WebClient.builder());
+        visitsServiceClient = new VisitsServiceClient(WebClient.builder(),
+            new SingleFlight(Duration.ZERO, new SimpleMeterRegistry()));
         visitsServiceClient.setHostname(server.url("/").toString());
     }
 
@@ -47,6 +54,25 @@ class VisitsServiceClientIntegrationTest {
         assertVisitDescriptionEquals(visits.block(), PET_ID,"test visit");
     }
 
+    @Test
+    void getVisitsByPet_postsIdsAndReadsGroupedVisits() throws InterruptedException {
+        prepareResponse(response -> response
+            .setHeader("Content-Type", "application/x-ndjson")
+            .setBody("""
+                {"petId":1,"visits":[{"id":5,"date":"2018-11-15","description":"test visit","petId":1}]}
+                {"petId":2,"visits":[{"id":6,"date":"2018-11-16","description":"checkup","petId":2},{"id":7,"date":"2018-11-17","description":"shot","petId":2}]}
+                """));
+
+        Map<Integer, List<VisitDetails>> visits = visitsServiceClient.getVisitsByPet(List.of(1, 2, 3)).block();
+
+        assertEquals(2, visits.size());
+        assertEquals("test visit", visits.get(PET_ID).get(0).description());
+        assertEquals(2, visits.get(2).size());
+        RecordedRequest request = server.takeRequest();
+        assertEquals("POST", request.getMethod());
+        assertEquals("/pets/visits/batch", request.getPath());
+        assertEquals("[1,2,3]", request.getBody().readUtf8());
+    }
 
     private void assertVisitDescriptionEquals(Visits visits, int petId, String description) {
         assertEquals(1, visits.items().size());
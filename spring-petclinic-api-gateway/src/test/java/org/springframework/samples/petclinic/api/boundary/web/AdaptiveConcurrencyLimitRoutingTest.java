@@ -0,0 +1,95 @@
+package org.springframework.samples.petclinic.api.boundary.web;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Routes to a MockWebServer with a concurrency limit of one request, set by the route's resilience profile, so that a request arriving while another is
+ * in flight is shed. The default filters are replaced by the limiter alone.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+class AdaptiveConcurrencyLimitRoutingTest {
+
+    private static final MockWebServer vetsService = new MockWebServer();
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void vetsRoute(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.gateway.routes[0].id", () -> "vets-service");
+        registry.add("spring.cloud.gateway.routes[0].uri", () -> vetsService.url("/").toString());
+        registry.add("spring.cloud.gateway.routes[0].predicates[0]", () -> "Path=/api/vet/**");
+        registry.add("spring.cloud.gateway.routes[0].filters[0]", () -> "StripPrefix=2");
+        registry.add("spring.cloud.gateway.default-filters[0].name", () -> "AdaptiveConcurrencyLimit");
+        registry.add("petclinic.resilience.routes.vets-service.concurrency-limit.initial-limit", () -> "1");
+        registry.add("petclinic.resilience.routes.vets-service.concurrency-limit.min-limit", () -> "1");
+        registry.add("petclinic.resilience.routes.vets-service.concurrency-limit.max-limit", () -> "1");
+    }
+
+    @AfterAll
+    static void shutdown() throws IOException {
+        vetsService.shutdown();
+    }
+
+    @Test
+    void shedsRequestsOverTheLimitWithServiceUnavailable() throws Exception {
+        CountDownLatch answer = new CountDownLatch(1);
+        vetsService.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                answer.await(5, TimeUnit.SECONDS);
+                return new MockResponse().setHeader("Content-Type", "application/json").setBody("[]");
+            }
+        });
+
+        CompletableFuture<Void> slow = Mono.fromRunnable(() -> client.get().uri("/api/vet/vets")
+                .exchange()
+                .expectStatus().isOk())
+            .subscribeOn(Schedulers.boundedElastic())
+            .then()
+            .toFuture();
+        vetsService.takeRequest(5, TimeUnit.SECONDS);
+        assertEquals(1, gauge("in-flight"));
+
+        client.get().uri("/api/vet/vets")
+            .exchange()
+            .expectStatus().isEqualTo(503)
+            .expectHeader().valueEquals("Retry-After", "1");
+
+        answer.countDown();
+        slow.get(5, TimeUnit.SECONDS);
+        assertEquals(1, meterRegistry.get("petclinic.gateway.concurrency.rejected").tag("route", "vets-service")
+            .counter().count());
+        assertEquals(1, gauge("limit"));
+        assertEquals(1, vetsService.getRequestCount());
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get("petclinic.gateway.concurrency." + name).tag("route", "vets-service").gauge().value();
+    }
+}
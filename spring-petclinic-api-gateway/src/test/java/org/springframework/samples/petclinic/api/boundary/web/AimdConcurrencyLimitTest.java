@@ -0,0 +1,65 @@
+package org.springframework.samples.petclinic.api.boundary.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AimdConcurrencyLimitTest {
+
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofSeconds(2).toNanos();
+
+    private final AimdConcurrencyLimit limit = new AimdConcurrencyLimit(4, 2, 5, 0.5, Duration.ofSeconds(1));
+
+    @Test
+    void rejectsRequestsOverTheLimit() {
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limit.tryAcquire());
+        }
+        assertFalse(limit.tryAcquire());
+        assertEquals(4, limit.inFlight());
+
+        limit.ignore();
+        assertTrue(limit.tryAcquire());
+    }
+
+    @Test
+    void growsWhileBusyAndFastUpToMaxLimit() {
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < limit.limit(); i++) {
+                limit.tryAcquire();
+            }
+            limit.release(FAST, false);
+            limit.ignore();
+            while (limit.inFlight() > 0) {
+                limit.ignore();
+            }
+        }
+
+        assertEquals(5, limit.limit());
+    }
+
+    @Test
+    void doesNotGrowWhenMostlyIdle() {
+        limit.tryAcquire();
+        limit.release(FAST, false);
+
+        assertEquals(4, limit.limit());
+    }
+
+    @Test
+    void backsOffOnSlowOrFailedRequestsDownToMinLimit() {
+        limit.tryAcquire();
+        limit.release(SLOW, false);
+        assertEquals(2, limit.limit());
+
+        limit.tryAcquire();
+        limit.release(FAST, true);
+        assertEquals(2, limit.limit());
+        assertEquals(0, limit.inFlight());
+    }
+}
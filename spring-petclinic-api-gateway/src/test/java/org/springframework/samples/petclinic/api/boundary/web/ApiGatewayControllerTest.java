@@ -15,6 +15,7 @@ import java.net.ConnectException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.Mockito.*;
 
@@ -46,9 +47,8 @@ class ApiGatewayControllerTest {
         when(customersServiceClient.getOwner(1)).thenReturn(Mono.just(owner));
 
         VisitDetails visit = new VisitDetails(300, cat.id(), null, "First visit");
-        Visits visits = new Visits(List.of(visit));
-        when(visitsServiceClient.getVisitsForPets(Collections.singletonList(cat.id())))
-            .thenReturn(Mono.just(visits));
+        when(visitsServiceClient.getVisitsByPet(Collections.singletonList(cat.id())))
+            .thenReturn(Mono.just(Map.of(cat.id(), List.of(visit))));
 
         client.get()
             .uri("/api/gateway/owners/1")
@@ -72,7 +72,7 @@ class ApiGatewayControllerTest {
             .build();
 
         when(customersServiceClient.getOwner(999)).thenReturn(Mono.just(owner));
-        when(visitsServiceClient.getVisitsForPets(Collections.singletonList(cat.id())))
+        when(visitsServiceClient.getVisitsByPet(Collections.singletonList(cat.id())))
             .thenReturn(Mono.error(new ConnectException("Simulate error")));
 
         client.get()
@@ -0,0 +1,75 @@
+package org.springframework.samples.petclinic.api.boundary.web;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that ETag and If-None-Match travel through a gateway route untouched, and that a 304 is relayed as is.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+class ConditionalRequestRoutingTest {
+
+    private static final String ETAG = "\"5d41402abc4b2a76b9719d911017c592\"";
+
+    private static final MockWebServer vetsService = new MockWebServer();
+
+    @Autowired
+    private WebTestClient client;
+
+    @DynamicPropertySource
+    static void vetsRoute(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.gateway.routes[0].id", () -> "vets-service");
+        registry.add("spring.cloud.gateway.routes[0].uri", () -> vetsService.url("/").toString());
+        registry.add("spring.cloud.gateway.routes[0].predicates[0]", () -> "Path=/api/vet/**");
+        registry.add("spring.cloud.gateway.routes[0].filters[0]", () -> "StripPrefix=2");
+    }
+
+    @AfterAll
+    static void shutdown() throws IOException {
+        vetsService.shutdown();
+    }
+
+    @Test
+    void shouldRelayETagAndNotModified() throws InterruptedException {
+        vetsService.enqueue(new MockResponse()
+            .setHeader("Content-Type", "application/json")
+            .setHeader("ETag", ETAG)
+            .setBody("[{\"id\":1,\"firstName\":\"James\",\"lastName\":\"Carter\",\"specialties\":[]}]"));
+        vetsService.enqueue(new MockResponse()
+            .setResponseCode(304)
+            .setHeader("ETag", ETAG));
+
+        client.get().uri("/api/vet/vets")
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().valueEquals("ETag", ETAG)
+            .expectBody().jsonPath("$[0].lastName").isEqualTo("Carter");
+        vetsService.takeRequest(1, TimeUnit.SECONDS);
+
+        client.get().uri("/api/vet/vets")
+            .header("If-None-Match", ETAG)
+            .exchange()
+            .expectStatus().isNotModified()
+            .expectHeader().valueEquals("ETag", ETAG)
+            .expectBody().isEmpty();
+
+        RecordedRequest conditional = vetsService.takeRequest(1, TimeUnit.SECONDS);
+        assertEquals("/vets", conditional.getPath());
+        assertEquals(ETAG, conditional.getHeader("If-None-Match"));
+    }
+}
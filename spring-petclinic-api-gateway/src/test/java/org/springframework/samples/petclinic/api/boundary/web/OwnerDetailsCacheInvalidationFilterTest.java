@@ -0,0 +1,56 @@
+package org.springframework.samples.petclinic.api.boundary.web;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.samples.petclinic.api.application.OwnerDetailsCache;
+import org.springframework.samples.petclinic.api.dto.OwnerDetails;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class OwnerDetailsCacheInvalidationFilterTest {
+
+    private OwnerDetailsCache cache;
+
+    private OwnerDetailsCacheInvalidationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        cache = new OwnerDetailsCache(10, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        cache.put(7, OwnerDetails.OwnerDetailsBuilder.anOwnerDetails().id(7).pets(List.of()).build());
+        filter = new OwnerDetailsCacheInvalidationFilter(cache);
+    }
+
+    @Test
+    void visitCreationEvictsOwner() {
+        filter(MockServerHttpRequest.post("/api/visit/owners/7/pets/9/visits").build());
+
+        assertNull(cache.get(7));
+    }
+
+    @Test
+    void ownerUpdateEvictsOwner() {
+        filter(MockServerHttpRequest.put("/api/customer/owners/7").build());
+
+        assertNull(cache.get(7));
+    }
+
+    @Test
+    void readsAndOtherOwnersKeepEntry() {
+        filter(MockServerHttpRequest.get("/api/customer/owners/7").build());
+        filter(MockServerHttpRequest.put("/api/customer/owners/8").build());
+
+        assertNotNull(cache.get(7));
+    }
+
+    private void filter(MockServerHttpRequest request) {
+        filter.filter(MockServerWebExchange.from(request), exchange -> Mono.empty()).block();
+    }
+}
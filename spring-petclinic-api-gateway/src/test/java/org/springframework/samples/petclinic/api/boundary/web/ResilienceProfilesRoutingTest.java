@@ -0,0 +1,112 @@
+package org.springframework.samples.petclinic.api.boundary.web;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.samples.petclinic.api.config.ResilienceProperties;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Checks that a route gets its own circuit breaker, time limiter and bulkhead, configured from its
+ * {@code petclinic.resilience} profile and published per route.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+class ResilienceProfilesRoutingTest {
+
+    private static final MockWebServer vetsService = new MockWebServer();
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private ResilienceProperties properties;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Autowired
+    private TimeLimiterRegistry timeLimiterRegistry;
+
+    @Autowired
+    private BulkheadRegistry bulkheadRegistry;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void vetsRoute(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.gateway.routes[0].id", () -> "vets-service");
+        registry.add("spring.cloud.gateway.routes[0].uri", () -> vetsService.url("/").toString());
+        registry.add("spring.cloud.gateway.routes[0].predicates[0]", () -> "Path=/api/vet/**");
+        registry.add("spring.cloud.gateway.routes[0].filters[0]", () -> "StripPrefix=2");
+    }
+
+    @AfterAll
+    static void shutdown() throws IOException {
+        vetsService.shutdown();
+    }
+
+    @Test
+    void routeSettingsFallBackToDefaults() {
+        ResilienceProperties.Profile vets = properties.profile("vets-service");
+
+        assertEquals(Duration.ofSeconds(2), vets.timeout());
+        assertEquals(Duration.ofSeconds(1), vets.slowCallDurationThreshold());
+        assertEquals(50f, vets.failureRateThreshold());
+        assertEquals(100, vets.maxConcurrentCalls());
+        assertEquals(Duration.ofSeconds(10), properties.profile("unknown").timeout());
+    }
+
+    @Test
+    void concurrencyLimitFallsBackToDefaultsSettingBySetting() {
+        ResilienceProperties.ConcurrencyLimit vets = properties.profile("vets-service").concurrencyLimitConfig();
+        ResilienceProperties.ConcurrencyLimit genai = properties.profile("genai-service").concurrencyLimitConfig();
+
+        assertEquals(100, vets.maxLimit());
+        assertEquals(20, vets.initialLimit());
+        assertEquals(Duration.ofSeconds(1), vets.latencyThreshold());
+        assertEquals(Duration.ofSeconds(30), genai.latencyThreshold());
+        assertEquals(10, genai.maxLimit());
+        assertEquals(0.9, genai.backoffRatio());
+    }
+
+    @Test
+    void routeIsProtectedByItsOwnProfile() {
+        vetsService.enqueue(new MockResponse().setHeader("Content-Type", "application/json").setBody("[]"));
+
+        client.get().uri("/api/vet/vets")
+            .exchange()
+            .expectStatus().isOk();
+
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.find("vets-service").orElseThrow();
+        assertEquals(Duration.ofSeconds(1), circuitBreaker.getCircuitBreakerConfig().getSlowCallDurationThreshold());
+        assertEquals(1, circuitBreaker.getMetrics().getNumberOfSuccessfulCalls());
+        assertEquals(Duration.ofSeconds(2),
+            timeLimiterRegistry.find("vets-service").orElseThrow().getTimeLimiterConfig().getTimeoutDuration());
+        assertEquals(100,
+            bulkheadRegistry.find("vets-service").orElseThrow().getBulkheadConfig().getMaxConcurrentCalls());
+
+        assertNotNull(meterRegistry.find("resilience4j.circuitbreaker.calls").tag("name", "vets-service").meter());
+        assertNotNull(meterRegistry.find("resilience4j.timelimiter.calls").tag("name", "vets-service").meter());
+        assertNotNull(meterRegistry.find("resilience4j.bulkhead.max.allowed.concurrent.calls")
+            .tag("name", "vets-service").gauge());
+    }
+}
@@ -0,0 +1,44 @@
+package org.springframework.samples.petclinic.api.application;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Building the {@code petId} query parameter of the visits lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VisitsServiceClientBenchmark {
+
+    @Param({"2", "10", "100"})
+    int pets;
+
+    private List<Integer> petIds;
+
+    @Setup
+    public void setUp() {
+        petIds = IntStream.rangeClosed(1, pets).map(id -> id * 7).boxed().toList();
+    }
+
+    @Benchmark
+    public String joinIds() {
+        return VisitsServiceClient.joinIds(petIds);
+    }
+}
@@ -0,0 +1,66 @@
+package org.springframework.samples.petclinic.api.boundary.web;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.samples.petclinic.api.dto.OwnerDetails;
+import org.springframework.samples.petclinic.api.dto.PetDetails;
+import org.springframework.samples.petclinic.api.dto.PetType;
+import org.springframework.samples.petclinic.api.dto.VisitDetails;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Merge of an owner from customers-service with the visits of its pets from visits-service.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OwnerDetailsAggregationBenchmark {
+
+    @Param({"2", "10"})
+    int pets;
+
+    private OwnerDetails owner;
+    private Map<Integer, List<VisitDetails>> visitsByPetId;
+
+    @Setup
+    public void setUp() {
+        List<PetDetails> petDetails = new ArrayList<>();
+        visitsByPetId = new HashMap<>();
+        for (int pet = 1; pet <= pets; pet++) {
+            petDetails.add(new PetDetails(pet, "Pet " + pet, "2020-05-01", new PetType("dog"), List.of()));
+            // every other pet has visits
+            if (pet % 2 == 0) {
+                visitsByPetId.put(pet, List.of(new VisitDetails(pet, pet, "2024-01-01", "rabies shot"),
+                    new VisitDetails(pet + 1000, pet, "2024-02-01", "check-up")));
+            }
+        }
+        owner = new OwnerDetails(1, "George", "Franklin", "110 W. Liberty St.", "Madison", "6085551023", petDetails);
+    }
+
+    @Benchmark
+    public List<Integer> petIds() {
+        return owner.getPetIds();
+    }
+
+    @Benchmark
+    public OwnerDetails addVisitsToOwner() {
+        return ApiGatewayController.addVisitsToOwner(owner, visitsByPetId);
+    }
+}
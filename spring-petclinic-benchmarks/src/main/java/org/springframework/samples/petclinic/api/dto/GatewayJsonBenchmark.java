@@ -0,0 +1,85 @@
+package org.springframework.samples.petclinic.api.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the payloads the gateway reads from and writes to the services.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GatewayJsonBenchmark {
+
+    @Param({"2", "10"})
+    int pets;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+    private OwnerDetails owner;
+    private Visits visits;
+    private byte[] ownerJson;
+    private byte[] visitsJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        List<PetDetails> petDetails = new ArrayList<>();
+        List<VisitDetails> allVisits = new ArrayList<>();
+        for (int pet = 1; pet <= pets; pet++) {
+            List<VisitDetails> petVisits = new ArrayList<>();
+            for (int visit = 1; visit <= 3; visit++) {
+                petVisits.add(new VisitDetails(pet * 10 + visit, pet, "2024-0" + visit + "-1" + visit, "Visit " + visit));
+            }
+            allVisits.addAll(petVisits);
+            petDetails.add(new PetDetails(pet, "Pet " + pet, "2020-05-0" + (pet % 9 + 1), new PetType("cat"), petVisits));
+        }
+        owner = new OwnerDetails(1, "George", "Franklin", "110 W. Liberty St.", "Madison", "6085551023", petDetails);
+        visits = new Visits(allVisits);
+        ownerJson = objectMapper.writeValueAsBytes(owner);
+        visitsJson = objectMapper.writeValueAsBytes(visits);
+    }
+
+    @Benchmark
+    public byte[] writeOwnerDetails() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(owner);
+    }
+
+    @Benchmark
+    public byte[] writePetDetails() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(owner.pets().get(0));
+    }
+
+    @Benchmark
+    public byte[] writeVisits() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(visits);
+    }
+
+    @Benchmark
+    public OwnerDetails readOwnerDetails() throws Exception {
+        return objectMapper.readValue(ownerJson, OwnerDetails.class);
+    }
+
+    @Benchmark
+    public Visits readVisits() throws Exception {
+        return objectMapper.readValue(visitsJson, Visits.class);
+    }
+}
@@ -0,0 +1,49 @@
+package org.springframework.samples.petclinic.customers.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Owner#addPet(Pet)} on an owner having thousands of pets, hashing and comparing the pet against the owner's set.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OwnerAddPetBenchmark {
+
+    @Param({"1000", "5000"})
+    int pets;
+
+    private Owner owner;
+    private Pet pet;
+
+    @Setup
+    public void setUp() {
+        owner = OwnerPetsBenchmark.owner(pets);
+        pet = new Pet();
+        pet.setId(pets + 1);
+        pet.setName("Nala");
+        pet.setType(owner.getPets().get(0).getType());
+        pet.setOwner(owner);
+    }
+
+    @Benchmark
+    public boolean addPet() {
+        owner.addPet(pet);
+        return owner.getPetsInternal().remove(pet);
+    }
+}
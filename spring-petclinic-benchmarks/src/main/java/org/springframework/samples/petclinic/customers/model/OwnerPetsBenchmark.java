@@ -0,0 +1,64 @@
+package org.springframework.samples.petclinic.customers.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Owner#getPets()}, which returns the pets sorted by name and is called for every owner rendered as JSON.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OwnerPetsBenchmark {
+
+    static final String[] NAMES = {"Leo", "Basil", "Rosy", "Jewel", "Iggy", "George", "Samantha", "Max", "Lucky", "Mulligan",
+        "Freddy", "Sly", "Lola", "Oscar", "Bella", "Milo", "Daisy", "Simba", "Coco", "Nala"};
+
+    @Param({"1", "2", "10"})
+    int pets;
+
+    private Owner owner;
+
+    @Setup
+    public void setUp() {
+        owner = owner(pets);
+    }
+
+    static Owner owner(int pets) {
+        PetType cat = new PetType();
+        cat.setId(1);
+        cat.setName("cat");
+        Owner owner = new Owner();
+        owner.setId(1);
+        owner.setFirstName("George");
+        owner.setLastName("Franklin");
+        for (int i = 0; i < pets; i++) {
+            Pet pet = new Pet();
+            pet.setId(i + 1);
+            pet.setName(NAMES[i % NAMES.length] + (i / NAMES.length == 0 ? "" : i / NAMES.length));
+            pet.setType(cat);
+            owner.addPet(pet);
+        }
+        return owner;
+    }
+
+    @Benchmark
+    public List<Pet> getPets() {
+        return owner.getPets();
+    }
+}
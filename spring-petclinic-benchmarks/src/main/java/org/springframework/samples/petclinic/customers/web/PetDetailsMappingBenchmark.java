@@ -0,0 +1,54 @@
+package org.springframework.samples.petclinic.customers.web;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.samples.petclinic.customers.model.Owner;
+import org.springframework.samples.petclinic.customers.model.Pet;
+import org.springframework.samples.petclinic.customers.model.PetType;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping of a {@link Pet} to the {@link PetDetails} returned by {@code GET /owners/{ownerId}/pets/{petId}}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PetDetailsMappingBenchmark {
+
+    private Pet pet;
+
+    @Setup
+    public void setUp() {
+        PetType dog = new PetType();
+        dog.setId(2);
+        dog.setName("dog");
+        Owner owner = new Owner();
+        owner.setId(3);
+        owner.setFirstName("Eduardo");
+        owner.setLastName("Rodriquez");
+        pet = new Pet();
+        pet.setId(4);
+        pet.setName("Jewel");
+        pet.setBirthDate(new Date(1_262_304_000_000L));
+        pet.setType(dog);
+        owner.addPet(pet);
+    }
+
+    @Benchmark
+    public PetDetails toPetDetails() {
+        return new PetDetails(pet);
+    }
+}
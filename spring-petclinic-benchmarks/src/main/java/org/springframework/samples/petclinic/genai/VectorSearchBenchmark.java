@@ -0,0 +1,107 @@
+package org.springframework.samples.petclinic.genai;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Similarity search over the embeddings of genai-service's {@code vectorstore.json}, grown with perturbed copies
+ * to the size of a real clinic.
+ * <p>
+ * genai-service depends on Spring AI milestones, so instead of depending on it this benchmark replays the exhaustive
+ * scan of Spring AI's {@code SimpleVectorStore}: cosine similarity against every stored embedding, threshold,
+ * sort by descending score and top K, as requested by {@code AIDataProvider}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VectorSearchBenchmark {
+
+    @Param({"6", "1000", "10000"})
+    int documents;
+
+    @Param({"20"})
+    int topK;
+
+    private final Map<String, float[]> store = new LinkedHashMap<>();
+    private float[] query;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<float[]> embeddings = new ArrayList<>();
+        try (InputStream json = getClass().getResourceAsStream("/vectorstore.json")) {
+            JsonNode root = new ObjectMapper().readTree(json);
+            for (Iterator<Map.Entry<String, JsonNode>> it = root.fields(); it.hasNext(); ) {
+                JsonNode embedding = it.next().getValue().get("embedding");
+                float[] vector = new float[embedding.size()];
+                for (int i = 0; i < vector.length; i++) {
+                    vector[i] = embedding.get(i).floatValue();
+                }
+                embeddings.add(vector);
+            }
+        }
+        Random random = new Random(42);
+        for (int i = 0; i < documents; i++) {
+            store.put("doc-" + i, perturb(embeddings.get(i % embeddings.size()), i < embeddings.size() ? 0 : 0.01f, random));
+        }
+        query = perturb(embeddings.get(0), 0.02f, random);
+    }
+
+    @Benchmark
+    public List<String> similaritySearch() {
+        return store.entrySet().stream()
+            .map(entry -> new Similarity(entry.getKey(), cosineSimilarity(query, entry.getValue())))
+            .filter(similarity -> similarity.score() >= 0.0)
+            .sorted(Comparator.comparingDouble(Similarity::score).reversed())
+            .limit(topK)
+            .map(Similarity::id)
+            .toList();
+    }
+
+    static double cosineSimilarity(float[] a, float[] b) {
+        double dot = 0;
+        double normA = 0;
+        double normB = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+            normA += a[i] * a[i];
+            normB += b[i] * b[i];
+        }
+        return dot / (Math.sqrt(normA) * Math.sqrt(normB));
+    }
+
+    private static float[] perturb(float[] vector, float noise, Random random) {
+        float[] copy = vector.clone();
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] += (float) random.nextGaussian() * noise;
+        }
+        return copy;
+    }
+
+    private record Similarity(String id, double score) {
+    }
+}
@@ -0,0 +1,159 @@
+package org.springframework.samples.petclinic.vectorsearch;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Search latency of {@link HnswIndex} against the exhaustive scan of the same vectors, for each {@link
+ * HnswIndex.Precision}, on generated embeddings clustered around random centroids like the embeddings of similar
+ * documents. The recall of both searches, the share of the float32 top K they find, is printed once the index is
+ * built. Building the graph of 100k vectors takes minutes, select the smaller one with {@code -p documents=10000} for
+ * a quick run. The int8 scores use the Vector API when the forks run with
+ * {@code -jvmArgsAppend --add-modules=jdk.incubator.vector}, a scalar loop otherwise.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HnswIndexBenchmark {
+
+    private static final int QUERIES = 200;
+
+    @Param({"10000", "100000"})
+    int documents;
+
+    @Param({"384"})
+    int dimensions;
+
+    @Param({"16"})
+    int m;
+
+    @Param({"100"})
+    int efConstruction;
+
+    @Param({"64"})
+    int efSearch;
+
+    @Param({"20"})
+    int topK;
+
+    @Param({"FLOAT32", "INT8", "INT8_RERANKED"})
+    HnswIndex.Precision precision;
+
+    private HnswIndex index;
+    private float[][] queries;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        float[][] centroids = new float[Math.max(documents / 100, 1)][];
+        for (int i = 0; i < centroids.length; i++) {
+            centroids[i] = gaussian(random, 1f);
+        }
+        float[][] vectors = new float[documents][];
+        index = new HnswIndex(dimensions, m, efConstruction, precision);
+        long start = System.nanoTime();
+        for (int i = 0; i < documents; i++) {
+            vectors[i] = around(centroids[random.nextInt(centroids.length)], 2f, random);
+            index.add(vectors[i]);
+        }
+        long buildMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        queries = new float[QUERIES][];
+        double foundByGraph = 0;
+        double foundByScan = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = around(centroids[random.nextInt(centroids.length)], 2f, random);
+            Set<Integer> exact = topK(vectors, queries[i]);
+            foundByGraph += index.search(queries[i], topK, efSearch, null).stream()
+                .filter(match -> exact.contains(match.node()))
+                .count();
+            foundByScan += index.exactSearch(queries[i], topK, null).stream()
+                .filter(match -> exact.contains(match.node()))
+                .count();
+        }
+        System.out.printf("%n%s HNSW of %d vectors built in %d ms, recall@%d with efSearch %d: %.3f, of the scan: "
+            + "%.3f%n", precision, documents, buildMillis, topK, efSearch, foundByGraph / (QUERIES * topK),
+            foundByScan / (QUERIES * topK));
+    }
+
+    /**
+     * @return the nodes of the K vectors of highest cosine similarity with the query, in float32
+     */
+    private Set<Integer> topK(float[][] vectors, float[] query) {
+        double queryNorm = Math.sqrt(HnswIndex.dot(query, query));
+        double[] similarities = new double[vectors.length];
+        for (int i = 0; i < vectors.length; i++) {
+            double norm = Math.sqrt(HnswIndex.dot(vectors[i], vectors[i]));
+            similarities[i] = HnswIndex.dot(query, vectors[i]) / (queryNorm * norm);
+        }
+        Set<Integer> top = new HashSet<>();
+        IntStream.range(0, vectors.length).boxed()
+            .sorted(Comparator.comparingDouble((Integer i) -> similarities[i]).reversed())
+            .limit(topK)
+            .forEach(top::add);
+        return top;
+    }
+
+    @Benchmark
+    public List<HnswIndex.Match> hnswSearch() {
+        return index.search(nextQuery(), topK, efSearch, null);
+    }
+
+    /**
+     * Scores every vector at the precision of the index.
+     */
+    @Benchmark
+    public List<HnswIndex.Match> exactSearch() {
+        return index.exactSearch(nextQuery(), topK, null);
+    }
+
+    /**
+     * Only even nodes may be returned, as with a metadata filter matching half of the documents.
+     */
+    @Benchmark
+    public List<HnswIndex.Match> filteredHnswSearch() {
+        return index.search(nextQuery(), topK, efSearch, node -> (node & 1) == 0);
+    }
+
+    private float[] nextQuery() {
+        next = (next + 1) % QUERIES;
+        return queries[next];
+    }
+
+    private float[] around(float[] centroid, float noise, Random random) {
+        float[] vector = gaussian(random, noise);
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] += centroid[i];
+        }
+        return vector;
+    }
+
+    private float[] gaussian(Random random, float scale) {
+        float[] vector = new float[dimensions];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = (float) random.nextGaussian() * scale;
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,145 @@
+package org.springframework.samples.petclinic.vectorsearch;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup cost of the vector store: parsing genai-service's {@code vectorstore.json} against mapping the same
+ * documents as a {@link VectorSnapshot}, and opening then scanning a generated snapshot of a million vectors.
+ * The heap retained by an opened snapshot is printed once it is written. Snapshots are read from the page cache
+ * after the first iteration, so this is the startup of a warm host.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class VectorSnapshotBenchmark {
+
+    @Benchmark
+    public int parseBundledJson(Bundled bundled) throws IOException {
+        return VectorSnapshotConverter.read(new ByteArrayInputStream(bundled.json)).size();
+    }
+
+    @Benchmark
+    public int openBundledSnapshot(Bundled bundled) throws IOException {
+        VectorSnapshot snapshot = VectorSnapshot.open(bundled.snapshot);
+        int length = 0;
+        for (int i = 0; i < snapshot.size(); i++) {
+            length += snapshot.id(i).length();
+        }
+        return length;
+    }
+
+    @Benchmark
+    public String openGenerated(Generated generated) throws IOException {
+        VectorSnapshot snapshot = VectorSnapshot.open(generated.file);
+        return snapshot.id(snapshot.size() - 1);
+    }
+
+    /**
+     * Opens the snapshot and scores every vector, the worst case of a first search.
+     */
+    @Benchmark
+    public float scanGenerated(Generated generated) throws IOException {
+        VectorSnapshot snapshot = VectorSnapshot.open(generated.file);
+        float best = -1;
+        for (int i = 0; i < snapshot.size(); i++) {
+            best = Math.max(best, snapshot.dot(generated.query, i));
+        }
+        return best;
+    }
+
+    @State(Scope.Benchmark)
+    public static class Bundled {
+
+        byte[] json;
+        Path snapshot;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            try (InputStream resource = getClass().getResourceAsStream("/vectorstore.json")) {
+                json = resource.readAllBytes();
+            }
+            snapshot = Files.createTempFile("vectorstore", ".bin");
+            VectorSnapshotConverter.convert(new ByteArrayInputStream(json), snapshot);
+            System.out.printf("%nvectorstore.json of %d KB converted to a snapshot of %d KB%n",
+                json.length / 1024, Files.size(snapshot) / 1024);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            Files.deleteIfExists(snapshot);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Generated {
+
+        @Param({"1000000"})
+        int vectors;
+
+        @Param({"384"})
+        int dimensions;
+
+        Path file;
+        float[] query;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            Random random = new Random(42);
+            file = Files.createTempFile("vectors", ".bin");
+            try (VectorSnapshot.Writer writer = VectorSnapshot.writer(file, dimensions, vectors)) {
+                for (int i = 0; i < vectors; i++) {
+                    writer.write("vet-" + i, "Veterinarian " + i + " of the clinic",
+                        "{\"specialty\":\"" + (i % 3 == 0 ? "surgery" : "radiology") + "\"}", gaussian(random));
+                }
+            }
+            query = gaussian(random);
+
+            long before = usedHeap();
+            VectorSnapshot snapshot = VectorSnapshot.open(file);
+            long retained = usedHeap() - before;
+            System.out.printf("%nSnapshot of %d vectors: %d MB on disk, %d KB of heap once opened (%s)%n", vectors,
+                Files.size(file) >> 20, retained >> 10, snapshot.id(vectors - 1));
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            Files.deleteIfExists(file);
+        }
+
+        private float[] gaussian(Random random) {
+            float[] vector = new float[dimensions];
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] = (float) random.nextGaussian();
+            }
+            return vector;
+        }
+
+        private static long usedHeap() {
+            System.gc();
+            return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package org.springframework.samples.petclinic.vets.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Vet#getSpecialties()}, which returns the specialties sorted by name and is called for every vet rendered as JSON.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VetSpecialtiesBenchmark {
+
+    private static final String[] NAMES = {"surgery", "radiology", "dentistry", "cardiology", "dermatology",
+        "oncology", "neurology", "ophthalmology"};
+
+    @Param({"0", "1", "3", "8"})
+    int specialties;
+
+    private Vet vet;
+
+    @Setup
+    public void setUp() {
+        vet = new Vet();
+        vet.setId(1);
+        vet.setFirstName("Helen");
+        vet.setLastName("Leary");
+        for (int i = 0; i < specialties; i++) {
+            Specialty specialty = new Specialty();
+            specialty.setName(NAMES[i]);
+            vet.addSpecialty(specialty);
+        }
+    }
+
+    @Benchmark
+    public List<Specialty> getSpecialties() {
+        return vet.getSpecialties();
+    }
+}
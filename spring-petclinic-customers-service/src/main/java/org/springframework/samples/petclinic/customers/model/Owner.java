@@ -18,8 +18,6 @@ package org.springframework.samples.petclinic.customers.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotBlank;
-import org.springframework.beans.support.MutableSortDefinition;
-import org.springframework.beans.support.PropertyComparator;
 import org.springframework.core.style.ToStringCreator;
 
 import java.util.*;
@@ -38,6 +36,9 @@ import java.util.*;
 @Table(name = "owners")
 public class Owner {
 
+    private static final Comparator<Pet> BY_NAME =
+        Comparator.comparing(Pet::getName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER));
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer id;
@@ -63,9 +64,15 @@ public class Owner {
     @Digits(fraction = 0, integer = 12)
     private String telephone;
 
-    @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER, mappedBy = "owner")
+    @OneToMany(cascade = CascadeType.ALL, mappedBy = "owner")
     private Set<Pet> pets;
 
+    /**
+     * {@link #getPets()} as last returned, reused as long as it holds the same number of pets in name order.
+     */
+    @Transient
+    private List<Pet> sortedPets;
+
     protected Set<Pet> getPetsInternal() {
         if (this.pets == null) {
             this.pets = new HashSet<>();
@@ -73,15 +80,35 @@ public class Owner {
         return this.pets;
     }
 
+    /**
+     * @return the pets sorted by name, ignoring case. The list is immutable and only rebuilt after a pet was added
+     * or renamed out of order.
+     */
     public List<Pet> getPets() {
-        final List<Pet> sortedPets = new ArrayList<>(getPetsInternal());
-        PropertyComparator.sort(sortedPets, new MutableSortDefinition("name", true, true));
-        return Collections.unmodifiableList(sortedPets);
+        final Set<Pet> pets = getPetsInternal();
+        List<Pet> sorted = this.sortedPets;
+        if (sorted == null || sorted.size() != pets.size() || !isSorted(sorted)) {
+            final Pet[] array = pets.toArray(new Pet[0]);
+            Arrays.sort(array, BY_NAME);
+            sorted = List.of(array);
+            this.sortedPets = sorted;
+        }
+        return sorted;
+    }
+
+    private static boolean isSorted(List<Pet> pets) {
+        for (int i = 1; i < pets.size(); i++) {
+            if (BY_NAME.compare(pets.get(i - 1), pets.get(i)) > 0) {
+                return false;
+            }
+        }
+        return true;
     }
 
     public void addPet(Pet pet) {
         getPetsInternal().add(pet);
         pet.setOwner(this);
+        this.sortedPets = null;
     }
 
     @Override
@@ -120,6 +147,10 @@ public class Owner {
         return this.telephone;
     }
 
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
     public void setFirstName(String firstName) {
         this.firstName = firstName;
     }
@@ -15,7 +15,20 @@
  */
 package org.springframework.samples.petclinic.customers.model;
 
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 /**
  * Repository class for <code>Owner</code> domain objects All method names are compliant with Spring Data naming
@@ -27,4 +40,51 @@ import org.springframework.data.jpa.repository.JpaRepository;
  * @author Michael Isvy
  * @author Maciej Szarlinski
  */
-public interface OwnerRepository extends JpaRepository<Owner, Integer> { }
+public interface OwnerRepository extends JpaRepository<Owner, Integer>, JpaSpecificationExecutor<Owner> {
+
+    /**
+     * Loads an owner together with its pets and their types in a single query.
+     */
+    @EntityGraph(attributePaths = {"pets", "pets.type"})
+    Optional<Owner> findWithPetsById(int id);
+
+    /**
+     * Loads all owners together with their pets and pet types in a single query.
+     */
+    @EntityGraph(attributePaths = {"pets", "pets.type"})
+    @Query("SELECT owner FROM Owner owner")
+    List<Owner> findAllWithPets();
+
+    /**
+     * Keyset (seek) pagination: the next {@code limit} owners whose id is greater than {@code id}.
+     */
+    List<Owner> findByIdGreaterThanOrderByIdAsc(int id, Limit limit);
+
+    /**
+     * Scrolls over all owners, with their pets and pet types, using a server-side cursor.
+     * Rows are ordered by owner id so that each owner's pets are read together.
+     * Must be consumed within a transaction and closed.
+     */
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT owner FROM Owner owner LEFT JOIN FETCH owner.pets pet LEFT JOIN FETCH pet.type ORDER BY owner.id")
+    Stream<Owner> streamAllOrderById();
+
+    /**
+     * Prefix search on the indexed last name, projected without pets.
+     */
+    List<OwnerSummary> findSummariesByLastNameStartingWithOrderByLastNameAscIdAsc(String lastName, Limit limit);
+
+    /**
+     * All owners projected without pets, e.g. to build an in-memory search index.
+     */
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new org.springframework.samples.petclinic.customers.model.OwnerSummary("
+        + "owner.id, owner.firstName, owner.lastName, owner.city, owner.telephone) FROM Owner owner")
+    Stream<OwnerSummary> streamAllSummaries();
+}
@@ -0,0 +1,54 @@
+package org.springframework.samples.petclinic.customers.model;
+
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Index-friendly {@link Specification}s for searching owners: prefix matches only ({@code LIKE 'abc%'}),
+ * so that the {@code owners_last_name_id}, {@code owners_city} and {@code owners_telephone} indexes are used.
+ */
+public final class OwnerSpecifications {
+
+    private static final char ESCAPE = '\\';
+
+    private OwnerSpecifications() {
+    }
+
+    /**
+     * Keyset of owners sorted by last name then id: the owners after {@code (lastName, id)}.
+     * The redundant {@code last_name >= lastName} bound lets the database seek the {@code owners_last_name_id}
+     * index rather than evaluate the disjunction on every row.
+     */
+    public static Specification<Owner> lastNameAndIdAfter(String lastName, int id) {
+        return (root, query, cb) -> cb.and(
+            cb.greaterThanOrEqualTo(root.get("lastName"), lastName),
+            cb.or(cb.greaterThan(root.get("lastName"), lastName), cb.greaterThan(root.get("id"), id)));
+    }
+
+    public static Specification<Owner> lastNameStartsWith(String prefix) {
+        return startsWith("lastName", prefix);
+    }
+
+    public static Specification<Owner> cityStartsWith(String prefix) {
+        return startsWith("city", prefix);
+    }
+
+    public static Specification<Owner> telephoneStartsWith(String prefix) {
+        return startsWith("telephone", prefix);
+    }
+
+    private static Specification<Owner> startsWith(String attribute, String prefix) {
+        return (root, query, cb) -> cb.like(root.get(attribute), escapeLike(prefix) + "%", ESCAPE);
+    }
+
+    static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '%' || c == '_' || c == ESCAPE) {
+                escaped.append(ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
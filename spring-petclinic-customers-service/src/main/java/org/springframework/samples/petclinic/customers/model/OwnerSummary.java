@@ -0,0 +1,13 @@
+package org.springframework.samples.petclinic.customers.model;
+
+/**
+ * Read-only projection of an {@link Owner} without its pets, for lists and typeahead suggestions.
+ */
+public record OwnerSummary(
+    Integer id,
+    String firstName,
+    String lastName,
+    String city,
+    String telephone
+) {
+}
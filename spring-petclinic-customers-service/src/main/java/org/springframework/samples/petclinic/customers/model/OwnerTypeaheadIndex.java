@@ -0,0 +1,269 @@
+package org.springframework.samples.petclinic.customers.model;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Optional in-memory trigram index over owner names for typeahead ("contains" matching on
+ * first and last name). Loaded once the application is ready when
+ * {@code customers.search.typeahead-index.enabled} is set, then kept up to date by {@link #index(Owner)}.
+ * <p>
+ * Each owner gets a slot, and each trigram maps to the sorted slots of the owners whose name contains it.
+ * Slots are handed out in last name order when the index is loaded, so a query walks the intersection of
+ * the posting lists of its trigrams in the order of its results and stops at the limit: its cost depends
+ * on the limit and on how selective the query is rather than on the number of owners. Owners created or
+ * renamed after the load get the next free slots; their matches are ranked among the others.
+ */
+@Component
+public class OwnerTypeaheadIndex {
+
+    public static final int MIN_QUERY_LENGTH = 3;
+
+    private static final Logger log = LoggerFactory.getLogger(OwnerTypeaheadIndex.class);
+
+    private static final Comparator<OwnerSummary> BY_LAST_NAME =
+        Comparator.comparing(OwnerSummary::lastName).thenComparing(OwnerSummary::id);
+
+    private final OwnerRepository ownerRepository;
+    private final boolean enabled;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, Integer> slotsById = new HashMap<>();
+    private final Map<String, IntList> postings = new HashMap<>();
+    private OwnerSummary[] owners = new OwnerSummary[16];
+    private String[] texts = new String[16];
+    private int slots;
+    // slots below this one are in last name order
+    private int sortedSlots;
+    // owners saved while the index loads, indexed once it is loaded
+    private List<OwnerSummary> pending;
+    private volatile boolean ready;
+
+    public OwnerTypeaheadIndex(OwnerRepository ownerRepository,
+                               @Value("${customers.search.typeahead-index.enabled:false}") boolean enabled) {
+        this.ownerRepository = ownerRepository;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        List<OwnerSummary> loaded;
+        try (Stream<OwnerSummary> owners = ownerRepository.streamAllSummaries()) {
+            loaded = owners.sorted(BY_LAST_NAME).toList();
+        }
+        lock.writeLock().lock();
+        try {
+            loaded.forEach(this::add);
+            sortedSlots = slots;
+            pending.forEach(this::add);
+            pending = null;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Owner typeahead index loaded with {} owners and {} trigrams in {} ms",
+            slotsById.size(), postings.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Adds or re-indexes an owner after it has been saved.
+     */
+    public void index(Owner owner) {
+        if (enabled) {
+            index(new OwnerSummary(owner.getId(), owner.getFirstName(), owner.getLastName(),
+                owner.getCity(), owner.getTelephone()));
+        }
+    }
+
+    void index(OwnerSummary owner) {
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                pending.add(owner);
+            } else {
+                add(owner);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gives the owner the next slot, releasing the one it had. Must hold the write lock.
+     */
+    private void add(OwnerSummary owner) {
+        final int slot = slots;
+        Integer previous = slotsById.put(owner.id(), slot);
+        if (previous != null) {
+            forEachTrigram(texts[previous], trigram -> postings.get(trigram).remove(previous));
+            owners[previous] = null;
+            texts[previous] = null;
+        }
+        if (slot == owners.length) {
+            owners = Arrays.copyOf(owners, slot * 2);
+            texts = Arrays.copyOf(texts, slot * 2);
+        }
+        owners[slot] = owner;
+        texts[slot] = normalize(owner.firstName() + " " + owner.lastName());
+        slots++;
+        forEachTrigram(texts[slot], trigram -> postings.computeIfAbsent(trigram, t -> new IntList()).add(slot));
+    }
+
+    /**
+     * @return the first {@code limit} owners, sorted by last name, whose first or last name contains {@code query}
+     */
+    public List<OwnerSummary> search(String query, int limit) {
+        String text = normalize(query);
+        if (text.length() < MIN_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Query must have at least " + MIN_QUERY_LENGTH + " characters");
+        }
+        List<OwnerSummary> matches = new ArrayList<>(limit);
+        lock.readLock().lock();
+        try {
+            IntList[] lists = new IntList[text.length() - MIN_QUERY_LENGTH + 1];
+            for (int i = 0; i < lists.length; i++) {
+                lists[i] = postings.get(text.substring(i, i + MIN_QUERY_LENGTH));
+                if (lists[i] == null) {
+                    return List.of();
+                }
+            }
+            // candidates are the slots of the shortest list, looked up in the others
+            Arrays.sort(lists, Comparator.comparingInt(IntList::size));
+            int[] positions = new int[lists.length];
+            IntList candidates = lists[0];
+            int i = 0;
+            for (; i < candidates.size() && candidates.get(i) < sortedSlots && matches.size() < limit; i++) {
+                if (matches(candidates.get(i), text, lists, positions)) {
+                    matches.add(owners[candidates.get(i)]);
+                }
+            }
+            // owners saved since the load are not in last name order: all of their matches are ranked
+            boolean unsorted = false;
+            for (i = candidates.seek(i, sortedSlots); i < candidates.size(); i++) {
+                if (matches(candidates.get(i), text, lists, positions)) {
+                    matches.add(owners[candidates.get(i)]);
+                    unsorted = true;
+                }
+            }
+            if (unsorted) {
+                matches.sort(BY_LAST_NAME);
+                return List.copyOf(matches.subList(0, Math.min(limit, matches.size())));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return matches;
+    }
+
+    /**
+     * @param positions where to resume the lookup of increasing slots in each list, advanced past {@code slot}
+     */
+    private boolean matches(int slot, String text, IntList[] lists, int[] positions) {
+        for (int j = 1; j < lists.length; j++) {
+            positions[j] = lists[j].seek(positions[j], slot);
+            if (positions[j] == lists[j].size() || lists[j].get(positions[j]) != slot) {
+                return false;
+            }
+        }
+        // every trigram does not make the whole query, e.g. "davis" for "avi dav"
+        return texts[slot].contains(text);
+    }
+
+    private static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    private static void forEachTrigram(String text, Consumer<String> action) {
+        for (int i = 0; i + MIN_QUERY_LENGTH <= text.length(); i++) {
+            action.accept(text.substring(i, i + MIN_QUERY_LENGTH));
+        }
+    }
+
+    /**
+     * Growable sorted set of primitive ints, to keep posting lists compact.
+     */
+    static final class IntList {
+
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            int index = Arrays.binarySearch(values, 0, size, value);
+            if (index >= 0) {
+                return;
+            }
+            int insertAt = -index - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            System.arraycopy(values, insertAt, values, insertAt + 1, size - insertAt);
+            values[insertAt] = value;
+            size++;
+        }
+
+        void remove(int value) {
+            int index = Arrays.binarySearch(values, 0, size, value);
+            if (index >= 0) {
+                System.arraycopy(values, index + 1, values, index, size - index - 1);
+                size--;
+            }
+        }
+
+        /**
+         * @return the index of the first value not less than {@code value}, searched from {@code from} on by
+         * galloping, so that looking up increasing values costs little more than their distance in the list
+         */
+        int seek(int from, int value) {
+            int low = from;
+            int high = from;
+            int step = 1;
+            while (high < size && values[high] < value) {
+                low = high + 1;
+                high += step;
+                step *= 2;
+            }
+            int index = Arrays.binarySearch(values, low, Math.min(high, size), value);
+            return index >= 0 ? index : -index - 1;
+        }
+
+        int get(int index) {
+            return values[index];
+        }
+
+        int size() {
+            return size;
+        }
+    }
+}
@@ -20,7 +20,6 @@ import jakarta.persistence.*;
 import org.springframework.core.style.ToStringCreator;
 
 import java.util.Date;
-import java.util.Objects;
 
 /**
  * Simple business object representing a pet.
@@ -45,24 +44,26 @@ public class Pet {
     @Temporal(TemporalType.DATE)
     private Date birthDate;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "type_id")
     private PetType type;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id")
     @JsonIgnore
     private Owner owner;
 
+    /**
+     * Only refers to the type and the owner by id, so that printing a pet neither loads them nor walks the owner's pets.
+     */
     @Override
     public String toString() {
         return new ToStringCreator(this)
             .append("id", this.getId())
             .append("name", this.getName())
             .append("birthDate", this.getBirthDate())
-            .append("type", this.getType().getName())
-            .append("ownerFirstname", this.getOwner().getFirstName())
-            .append("ownerLastname", this.getOwner().getLastName())
+            .append("typeId", this.type == null ? null : this.type.getId())
+            .append("ownerId", this.owner == null ? null : this.owner.getId())
             .toString();
     }
 
@@ -106,19 +107,23 @@ public class Pet {
         this.owner = owner;
     }
 
+    /**
+     * Pets are equal when they have the same id; a pet that has not been saved yet is only equal to itself.
+     * The getter is used for the other pet as it may be a lazy proxy.
+     */
     @Override
     public boolean equals(Object o) {
-        if (o == null || getClass() != o.getClass()) return false;
-        Pet pet = (Pet) o;
-        return Objects.equals(id, pet.id)
-            && Objects.equals(name, pet.name)
-            && Objects.equals(birthDate, pet.birthDate)
-            && Objects.equals(type, pet.type)
-            && Objects.equals(owner, pet.owner);
+        if (this == o) return true;
+        if (!(o instanceof Pet pet)) return false;
+        return id != null && id.equals(pet.getId());
     }
 
+    /**
+     * The same for all pets, as the id a new pet gets when saved would move it in the owner's set, where
+     * {@link Owner#addPet} put it before. Lazy proxies of pets share it too.
+     */
     @Override
     public int hashCode() {
-        return Objects.hash(id, name, birthDate, type, owner);
+        return Pet.class.hashCode();
     }
 }
@@ -15,9 +15,11 @@
  */
 package org.springframework.samples.petclinic.customers.model;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -44,6 +46,18 @@ public interface PetRepository extends JpaRepository<Pet, Integer> {
     @Query("FROM PetType ptype WHERE ptype.id = :typeId")
     Optional<PetType> findPetTypeById(@Param("typeId") int typeId);
 
+    /**
+     * Loads a pet together with its owner and type in a single query.
+     */
+    @EntityGraph(attributePaths = {"owner", "type"})
+    Optional<Pet> findWithOwnerAndTypeById(int id);
+
+    /**
+     * Pets of the given owners projected to their id and name, sorted by name, for list views.
+     */
+    @Query("SELECT new org.springframework.samples.petclinic.customers.model.PetSummary(pet.id, pet.name, pet.owner.id) "
+        + "FROM Pet pet WHERE pet.owner.id IN :ownerIds ORDER BY pet.name")
+    List<PetSummary> findSummariesByOwnerIdIn(@Param("ownerIds") Collection<Integer> ownerIds);
 
 }
 
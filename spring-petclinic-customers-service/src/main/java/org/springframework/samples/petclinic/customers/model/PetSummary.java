@@ -0,0 +1,11 @@
+package org.springframework.samples.petclinic.customers.model;
+
+/**
+ * Read-only projection of a {@link Pet} reduced to what owner lists display.
+ */
+public record PetSummary(
+    Integer id,
+    String name,
+    Integer ownerId
+) {
+}
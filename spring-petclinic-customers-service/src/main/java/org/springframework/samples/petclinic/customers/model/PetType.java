@@ -15,6 +15,7 @@
  */
 package org.springframework.samples.petclinic.customers.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 
 /**
@@ -24,6 +25,7 @@ import jakarta.persistence.*;
  */
 @Entity
 @Table(name = "types")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class PetType {
 
     @Id
@@ -0,0 +1,158 @@
+package org.springframework.samples.petclinic.customers.model;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Read-through, in-process cache of the {@link PetType} reference data.
+ * <p>
+ * All types are loaded once the application is ready and can be reloaded with {@link #refresh()}.
+ * Lookups by id read an array indexed by type id, replaced as a whole on every change so readers never lock;
+ * the changes themselves are serialized.
+ * A type missing from the cache is read from the database and added.
+ * Each snapshot carries a strong ETag of its content for conditional requests.
+ * Hits and misses are counted in the {@code cache.gets} meter, tagged {@code cache=petTypes}.
+ */
+@Component
+public class PetTypeCache {
+
+    /**
+     * Type ids above this bound are never cached, to keep the id-indexed array small.
+     */
+    static final int MAX_CACHED_ID = 1 << 12;
+
+    private static final Logger log = LoggerFactory.getLogger(PetTypeCache.class);
+
+    private final PetRepository petRepository;
+    private final Counter hits;
+    private final Counter misses;
+
+    private volatile Snapshot snapshot;
+
+    public PetTypeCache(PetRepository petRepository, MeterRegistry meterRegistry) {
+        this.petRepository = petRepository;
+        this.hits = Counter.builder("cache.gets").tag("cache", "petTypes").tag("result", "hit")
+            .description("Pet type lookups served from the cache").register(meterRegistry);
+        this.misses = Counter.builder("cache.gets").tag("cache", "petTypes").tag("result", "miss")
+            .description("Pet type lookups read from the database").register(meterRegistry);
+        Gauge.builder("cache.size", this, PetTypeCache::size).tag("cache", "petTypes")
+            .description("Number of cached pet types").register(meterRegistry);
+    }
+
+    /**
+     * Reloads all pet types from the database. Synchronized with {@link #add} so that a type read
+     * concurrently is never lost, nor a stale reload published over a newer snapshot.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void refresh() {
+        Snapshot loaded = Snapshot.of(petRepository.findPetTypes());
+        snapshot = loaded;
+        log.info("Loaded {} pet types", loaded.sorted().size());
+    }
+
+    /**
+     * @return all pet types sorted by name
+     */
+    public List<PetType> findAll() {
+        return snapshot().sorted();
+    }
+
+    /**
+     * @return all pet types sorted by name together with their ETag, read from the same snapshot
+     */
+    public TaggedPetTypes findAllTagged() {
+        Snapshot current = snapshot();
+        return new TaggedPetTypes(current.sorted(), current.etag());
+    }
+
+    public Optional<PetType> findById(int typeId) {
+        PetType type = snapshot().get(typeId);
+        if (type != null) {
+            hits.increment();
+            return Optional.of(type);
+        }
+        misses.increment();
+        Optional<PetType> loaded = petRepository.findPetTypeById(typeId);
+        loaded.ifPresent(this::add);
+        return loaded;
+    }
+
+    public int size() {
+        Snapshot current = snapshot;
+        return current == null ? 0 : current.sorted().size();
+    }
+
+    public double hitCount() {
+        return hits.count();
+    }
+
+    public double missCount() {
+        return misses.count();
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            refresh();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    private synchronized void add(PetType type) {
+        List<PetType> types = new ArrayList<>(snapshot().sorted());
+        types.removeIf(cached -> cached.getId().equals(type.getId()));
+        types.add(type);
+        snapshot = Snapshot.of(types);
+    }
+
+    public record TaggedPetTypes(List<PetType> types, String etag) {
+    }
+
+    private record Snapshot(PetType[] byId, List<PetType> sorted, String etag) {
+
+        static Snapshot of(List<PetType> types) {
+            List<PetType> sorted = types.stream()
+                .sorted(Comparator.comparing(PetType::getName, Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+            int maxId = sorted.stream()
+                .mapToInt(PetType::getId)
+                .filter(id -> id >= 0 && id <= MAX_CACHED_ID)
+                .max()
+                .orElse(-1);
+            PetType[] byId = new PetType[maxId + 1];
+            for (PetType type : sorted) {
+                if (type.getId() >= 0 && type.getId() <= maxId) {
+                    byId[type.getId()] = type;
+                }
+            }
+            return new Snapshot(byId, sorted, etag(sorted));
+        }
+
+        private static String etag(List<PetType> sorted) {
+            StringBuilder content = new StringBuilder();
+            for (PetType type : sorted) {
+                content.append(type.getId()).append(':').append(type.getName()).append('\n');
+            }
+            return "\"" + DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+        }
+
+        PetType get(int id) {
+            return id >= 0 && id < byId.length ? byId[id] : null;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package org.springframework.samples.petclinic.customers.web;
+
+import org.springframework.samples.petclinic.customers.model.Owner;
+import org.springframework.samples.petclinic.customers.model.PetSummary;
+
+import java.util.List;
+
+/**
+ * Owner as shown in owner lists: its own columns and the names of its pets.
+ */
+record OwnerListItem(
+
+    Integer id,
+
+    String firstName,
+
+    String lastName,
+
+    String address,
+
+    String city,
+
+    String telephone,
+
+    List<PetSummary> pets
+) {
+    OwnerListItem(Owner owner, List<PetSummary> pets) {
+        this(owner.getId(), owner.getFirstName(), owner.getLastName(), owner.getAddress(), owner.getCity(), owner.getTelephone(), pets);
+    }
+}
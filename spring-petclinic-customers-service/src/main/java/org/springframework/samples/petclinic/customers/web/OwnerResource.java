@@ -15,19 +15,45 @@
  */
 package org.springframework.samples.petclinic.customers.web;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.samples.petclinic.customers.web.mapper.OwnerEntityMapper;
 import org.springframework.samples.petclinic.customers.model.Owner;
 import org.springframework.samples.petclinic.customers.model.OwnerRepository;
+import org.springframework.samples.petclinic.customers.model.OwnerSummary;
+import org.springframework.samples.petclinic.customers.model.OwnerTypeaheadIndex;
+import org.springframework.samples.petclinic.customers.model.PetRepository;
+import org.springframework.samples.petclinic.customers.model.PetSummary;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.springframework.samples.petclinic.customers.model.OwnerSpecifications.cityStartsWith;
+import static org.springframework.samples.petclinic.customers.model.OwnerSpecifications.lastNameAndIdAfter;
+import static org.springframework.samples.petclinic.customers.model.OwnerSpecifications.lastNameStartsWith;
+import static org.springframework.samples.petclinic.customers.model.OwnerSpecifications.telephoneStartsWith;
 
 /**
  * @author Juergen Hoeller
@@ -43,12 +69,27 @@ class OwnerResource {
 
     private static final Logger log = LoggerFactory.getLogger(OwnerResource.class);
 
+    static final int MAX_PAGE_SIZE = 500;
+
     private final OwnerRepository ownerRepository;
+    private final PetRepository petRepository;
     private final OwnerEntityMapper ownerEntityMapper;
+    private final OwnerTypeaheadIndex typeaheadIndex;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
 
-    OwnerResource(OwnerRepository ownerRepository, OwnerEntityMapper ownerEntityMapper) {
+    OwnerResource(OwnerRepository ownerRepository, PetRepository petRepository, OwnerEntityMapper ownerEntityMapper,
+                  OwnerTypeaheadIndex typeaheadIndex, EntityManager entityManager,
+                  PlatformTransactionManager transactionManager, ObjectMapper objectMapper) {
         this.ownerRepository = ownerRepository;
+        this.petRepository = petRepository;
         this.ownerEntityMapper = ownerEntityMapper;
+        this.typeaheadIndex = typeaheadIndex;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -58,7 +99,9 @@ class OwnerResource {
     @ResponseStatus(HttpStatus.CREATED)
     public Owner createOwner(@Valid @RequestBody OwnerRequest ownerRequest) {
         Owner owner = ownerEntityMapper.map(new Owner(), ownerRequest);
-        return ownerRepository.save(owner);
+        Owner saved = ownerRepository.save(owner);
+        typeaheadIndex.index(saved);
+        return saved;
     }
 
     /**
@@ -66,7 +109,7 @@ class OwnerResource {
      */
     @GetMapping(value = "/{ownerId}")
     public Optional<Owner> findOwner(@PathVariable("ownerId") @Min(1) int ownerId) {
-        return ownerRepository.findById(ownerId);
+        return ownerRepository.findWithPetsById(ownerId);
     }
 
     /**
@@ -74,7 +117,116 @@ class OwnerResource {
      */
     @GetMapping
     public List<Owner> findAll() {
-        return ownerRepository.findAll();
+        return ownerRepository.findAllWithPets();
+    }
+
+    /**
+     * Read a page of Owners ordered by id, starting after the owner id {@code after}.
+     * The returned {@code next} cursor is {@code null} on the last page.
+     * Owners are listed without their pets' details, see {@link OwnerListItem}.
+     */
+    @GetMapping("/page")
+    public OwnersPage findPage(@RequestParam(name = "after", defaultValue = "0") int after,
+                               @RequestParam(name = "limit", defaultValue = "50") int limit) {
+        final int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        final List<Owner> owners = ownerRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(pageSize));
+        return toPage(owners, pageSize);
+    }
+
+    /**
+     * Search Owners by last name, city and/or telephone prefix, ordered by last name then id and paginated
+     * after the {@code (afterLastName, afterId)} cursor, which is read from the {@code owners_last_name_id} index.
+     * Only prefix matching is offered so that each criterion is answered from its index.
+     * The returned {@code next} cursor is {@code null} on the last page.
+     */
+    @GetMapping("/search")
+    public OwnersSearchPage search(@RequestParam(name = "lastName", required = false) String lastName,
+                                   @RequestParam(name = "city", required = false) String city,
+                                   @RequestParam(name = "telephone", required = false) String telephone,
+                                   @RequestParam(name = "afterLastName", required = false) String afterLastName,
+                                   @RequestParam(name = "afterId", defaultValue = "0") int afterId,
+                                   @RequestParam(name = "limit", defaultValue = "50") int limit) {
+        Specification<Owner> spec = Specification.where(null);
+        if (afterLastName != null) {
+            spec = spec.and(lastNameAndIdAfter(afterLastName, afterId));
+        }
+        if (StringUtils.hasText(lastName)) {
+            spec = spec.and(lastNameStartsWith(lastName));
+        }
+        if (StringUtils.hasText(city)) {
+            spec = spec.and(cityStartsWith(city));
+        }
+        if (StringUtils.hasText(telephone)) {
+            spec = spec.and(telephoneStartsWith(telephone));
+        }
+        final int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        final List<Owner> owners = ownerRepository.findBy(spec,
+            query -> query.sortBy(Sort.by("lastName", "id")).limit(pageSize).all());
+        final Owner last = owners.size() < pageSize ? null : owners.get(owners.size() - 1);
+        return new OwnersSearchPage(toItems(owners),
+            last == null ? null : new SearchCursor(last.getLastName(), last.getId()));
+    }
+
+    private OwnersPage toPage(List<Owner> owners, int pageSize) {
+        final Integer next = owners.size() < pageSize ? null : owners.get(owners.size() - 1).getId();
+        return new OwnersPage(toItems(owners), next);
+    }
+
+    /**
+     * Pairs a page of owners with their pets, read with one projection query for the whole page
+     * rather than by loading each owner's pet collection.
+     */
+    private List<OwnerListItem> toItems(List<Owner> owners) {
+        if (owners.isEmpty()) {
+            return List.of();
+        }
+        final Map<Integer, List<PetSummary>> petsByOwner = petRepository
+            .findSummariesByOwnerIdIn(owners.stream().map(Owner::getId).toList())
+            .stream()
+            .collect(Collectors.groupingBy(PetSummary::ownerId));
+        return owners.stream()
+            .map(owner -> new OwnerListItem(owner, petsByOwner.getOrDefault(owner.getId(), List.of())))
+            .toList();
+    }
+
+    /**
+     * Typeahead suggestions: owners whose first or last name contains {@code q}, served from the in-memory
+     * trigram index when it is enabled, otherwise a last name prefix search in the database.
+     */
+    @GetMapping("/typeahead")
+    public List<OwnerSummary> typeahead(@RequestParam("q") String q,
+                                        @RequestParam(name = "limit", defaultValue = "10") int limit) {
+        final int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        if (typeaheadIndex.isReady() && q.trim().length() >= OwnerTypeaheadIndex.MIN_QUERY_LENGTH) {
+            return typeaheadIndex.search(q.trim(), size);
+        }
+        return ownerRepository.findSummariesByLastNameStartingWithOrderByLastNameAscIdAsc(q.trim(), Limit.of(size));
+    }
+
+    /**
+     * Stream all Owners as newline-delimited JSON, read through a database cursor.
+     * Each owner is detached once written so memory stays constant whatever the number of owners.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        final StreamingResponseBody body = out -> readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<Owner> owners = ownerRepository.streamAllOrderById()) {
+                owners.forEach(owner -> {
+                    writeLine(out, owner);
+                    entityManager.detach(owner);
+                });
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private void writeLine(OutputStream out, Owner owner) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(owner));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     /**
@@ -86,7 +238,31 @@ class OwnerResource {
         final Owner ownerModel = ownerRepository.findById(ownerId).orElseThrow(() -> new ResourceNotFoundException("Owner " + ownerId + " not found"));
 
         ownerEntityMapper.map(ownerModel, ownerRequest);
-        log.info("Saving owner {}", ownerModel);
         ownerRepository.save(ownerModel);
+        log.atInfo()
+            .addKeyValue("ownerId", ownerId)
+            .log("Saved owner {}", ownerId);
+        typeaheadIndex.index(ownerModel);
+    }
+
+    record OwnersPage(
+        List<OwnerListItem> items,
+        Integer next
+    ) {
+    }
+
+    record OwnersSearchPage(
+        List<OwnerListItem> items,
+        SearchCursor next
+    ) {
+    }
+
+    /**
+     * The last owner of a search page, passed back as {@code afterLastName} and {@code afterId}.
+     */
+    record SearchCursor(
+        String lastName,
+        int id
+    ) {
     }
 }
@@ -20,6 +20,7 @@ import jakarta.validation.constraints.Min;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.samples.petclinic.customers.model.*;
 import org.springframework.web.bind.annotation.*;
 
@@ -40,15 +41,24 @@ class PetResource {
 
     private final PetRepository petRepository;
     private final OwnerRepository ownerRepository;
+    private final PetTypeCache petTypeCache;
 
-    PetResource(PetRepository petRepository, OwnerRepository ownerRepository) {
+    PetResource(PetRepository petRepository, OwnerRepository ownerRepository, PetTypeCache petTypeCache) {
         this.petRepository = petRepository;
         this.ownerRepository = ownerRepository;
+        this.petTypeCache = petTypeCache;
     }
 
+    /**
+     * Lists the pet types with a strong ETag. A request whose {@code If-None-Match} matches gets
+     * a 304 Not Modified without the types being serialized.
+     */
     @GetMapping("/petTypes")
-    public List<PetType> getPetTypes() {
-        return petRepository.findPetTypes();
+    public ResponseEntity<List<PetType>> getPetTypes() {
+        PetTypeCache.TaggedPetTypes petTypes = petTypeCache.findAllTagged();
+        return ResponseEntity.ok()
+            .eTag(petTypes.etag())
+            .body(petTypes.types());
     }
 
     @PostMapping("/owners/{ownerId}/pets")
@@ -78,11 +88,15 @@ class PetResource {
         pet.setName(petRequest.name());
         pet.setBirthDate(petRequest.birthDate());
 
-        petRepository.findPetTypeById(petRequest.typeId())
+        petTypeCache.findById(petRequest.typeId())
             .ifPresent(pet::setType);
 
-        log.info("Saving pet {}", pet);
-        return petRepository.save(pet);
+        final Pet saved = petRepository.save(pet);
+        log.atInfo()
+            .addKeyValue("petId", saved.getId())
+            .addKeyValue("ownerId", saved.getOwner().getId())
+            .log("Saved pet {} of owner {}", saved.getId(), saved.getOwner().getId());
+        return saved;
     }
 
     @GetMapping("owners/*/pets/{petId}")
@@ -93,7 +107,7 @@ class PetResource {
 
 
     private Pet findPetById(int petId) {
-        return petRepository.findById(petId)
+        return petRepository.findWithOwnerAndTypeById(petId)
             .orElseThrow(() -> new ResourceNotFoundException("Pet " + petId + " not found"));
     }
 
@@ -0,0 +1,40 @@
+package org.springframework.samples.petclinic.customers.web;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.samples.petclinic.customers.model.PetTypeCache;
+import org.springframework.stereotype.Component;
+
+/**
+ * Admin endpoint of the {@link PetTypeCache}: {@code GET /actuator/pettypes} reports its state,
+ * {@code POST /actuator/pettypes} reloads it after the pet types have been changed in the database.
+ */
+@Component
+@Endpoint(id = "pettypes")
+class PetTypesEndpoint {
+
+    private final PetTypeCache petTypeCache;
+
+    PetTypesEndpoint(PetTypeCache petTypeCache) {
+        this.petTypeCache = petTypeCache;
+    }
+
+    @ReadOperation
+    public CacheState state() {
+        return new CacheState(petTypeCache.size(), petTypeCache.hitCount(), petTypeCache.missCount());
+    }
+
+    @WriteOperation
+    public CacheState refresh() {
+        petTypeCache.refresh();
+        return state();
+    }
+
+    record CacheState(
+        int size,
+        double hits,
+        double misses
+    ) {
+    }
+}
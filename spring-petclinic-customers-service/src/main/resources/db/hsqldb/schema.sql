@@ -16,7 +16,9 @@ CREATE TABLE owners (
   city       VARCHAR(80),
   telephone  VARCHAR(12)
 );
-CREATE INDEX owners_last_name ON owners (last_name);
+CREATE INDEX owners_last_name_id ON owners (last_name, id);
+CREATE INDEX owners_city ON owners (city);
+CREATE INDEX owners_telephone ON owners (telephone);
 
 CREATE TABLE pets (
   id         INTEGER IDENTITY PRIMARY KEY,
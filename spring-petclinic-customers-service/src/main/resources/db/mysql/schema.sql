@@ -18,6 +18,27 @@ CREATE TABLE IF NOT EXISTS owners (
   INDEX(last_name)
 ) engine=InnoDB;
 
+-- Search indexes, also created in databases whose owners table predates them.
+-- MySQL has no CREATE INDEX IF NOT EXISTS: each index is only created when information_schema lacks it.
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX owners_last_name_id ON owners (last_name, id)', 'DO 0')
+  FROM information_schema.statistics
+  WHERE table_schema = DATABASE() AND table_name = 'owners' AND index_name = 'owners_last_name_id');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX owners_city ON owners (city)', 'DO 0')
+  FROM information_schema.statistics
+  WHERE table_schema = DATABASE() AND table_name = 'owners' AND index_name = 'owners_city');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX owners_telephone ON owners (telephone)', 'DO 0')
+  FROM information_schema.statistics
+  WHERE table_schema = DATABASE() AND table_name = 'owners' AND index_name = 'owners_telephone');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
 CREATE TABLE IF NOT EXISTS pets (
   id INT(4) UNSIGNED NOT NULL AUTO_INCREMENT PRIMARY KEY,
   name VARCHAR(30),
@@ -0,0 +1,101 @@
+package org.springframework.samples.petclinic.customers.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards against N+1 selects: each read path, including rendering the result as JSON,
+ * must run a fixed number of SQL statements whatever the number of owners and pets.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class OwnerFetchPlanTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    OwnerRepository ownerRepository;
+
+    @Autowired
+    PetRepository petRepository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void resetStatistics() {
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @Test
+    void findAllLoadsOwnersPetsAndTypesWithOneStatement() throws Exception {
+        List<Owner> owners = ownerRepository.findAllWithPets();
+        String json = objectMapper.writeValueAsString(owners);
+
+        assertThat(owners).hasSize(10);
+        assertThat(json).contains("\"name\":\"Samantha\"", "\"name\":\"hamster\"");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findOwnerLoadsPetsAndTypesWithOneStatement() throws Exception {
+        Owner owner = ownerRepository.findWithPetsById(6).orElseThrow();
+        String json = objectMapper.writeValueAsString(owner);
+
+        assertThat(owner.getPets()).extracting(Pet::getName).containsExactly("Max", "Samantha");
+        assertThat(json).contains("\"type\":{\"id\":1,\"name\":\"cat\"}");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void ownerPageReadsPetsWithOneProjectionQuery() {
+        List<Owner> owners = ownerRepository.findByIdGreaterThanOrderByIdAsc(2, Limit.of(5));
+        List<PetSummary> pets = petRepository.findSummariesByOwnerIdIn(owners.stream().map(Owner::getId).toList());
+
+        assertThat(pets).extracting(PetSummary::name).containsExactly("George", "Iggy", "Jewel", "Lucky", "Max", "Rosy", "Samantha");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getCollectionFetchCount()).isZero();
+    }
+
+    @Test
+    void streamReadsEachOwnerWithItsPetsFromOneStatement() throws Exception {
+        try (Stream<Owner> owners = ownerRepository.streamAllOrderById()) {
+            List<Owner> all = owners.toList();
+            assertThat(all).extracting(Owner::getId).containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+            assertThat(all.get(9).getPets()).extracting(Pet::getName).containsExactly("Lucky", "Sly");
+            objectMapper.writeValueAsString(all);
+        }
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findPetLoadsOwnerAndTypeWithOneStatement() {
+        Pet pet = petRepository.findWithOwnerAndTypeById(7).orElseThrow();
+
+        assertThat(pet.getOwner().getLastName()).isEqualTo("Coleman");
+        assertThat(pet.getType().getName()).isEqualTo("cat");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
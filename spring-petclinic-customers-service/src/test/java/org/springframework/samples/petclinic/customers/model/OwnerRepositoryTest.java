@@ -0,0 +1,60 @@
+package org.springframework.samples.petclinic.customers.model;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.samples.petclinic.customers.model.OwnerSpecifications.cityStartsWith;
+import static org.springframework.samples.petclinic.customers.model.OwnerSpecifications.lastNameAndIdAfter;
+import static org.springframework.samples.petclinic.customers.model.OwnerSpecifications.lastNameStartsWith;
+import static org.springframework.samples.petclinic.customers.model.OwnerSpecifications.telephoneStartsWith;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class OwnerRepositoryTest {
+
+    @Autowired
+    OwnerRepository ownerRepository;
+
+    @Test
+    void shouldSearchByPrefixes() {
+        List<Owner> davis = ownerRepository.findBy(lastNameStartsWith("Dav"),
+            query -> query.sortBy(Sort.by("lastName", "id")).all());
+        assertThat(davis).extracting(Owner::getId).containsExactly(2, 4);
+
+        List<Owner> madison = ownerRepository.findBy(cityStartsWith("Madi").and(telephoneStartsWith("608555")),
+            query -> query.sortBy(Sort.by("lastName", "id")).limit(2).all());
+        assertThat(madison).extracting(Owner::getLastName).containsExactly("Escobito", "Franklin");
+    }
+
+    @Test
+    void shouldPageByLastNameThenId() {
+        List<Owner> madison = ownerRepository.findBy(lastNameAndIdAfter("Franklin", 1).and(cityStartsWith("Madi")),
+            query -> query.sortBy(Sort.by("lastName", "id")).all());
+        assertThat(madison).extracting(Owner::getLastName).containsExactly("McTavish", "Schroeder");
+
+        List<Owner> davis = ownerRepository.findBy(lastNameAndIdAfter("Davis", 2).and(lastNameStartsWith("Dav")),
+            query -> query.sortBy(Sort.by("lastName", "id")).all());
+        assertThat(davis).extracting(Owner::getId).containsExactly(4);
+    }
+
+    @Test
+    void shouldTreatLikeWildcardsLiterally() {
+        List<Owner> owners = ownerRepository.findBy(lastNameStartsWith("%"),
+            query -> query.all());
+        assertThat(owners).isEmpty();
+    }
+
+    @Test
+    void shouldFindSummariesByLastNamePrefix() {
+        assertThat(ownerRepository.findSummariesByLastNameStartingWithOrderByLastNameAscIdAsc("Da", Limit.of(10)))
+            .extracting(OwnerSummary::firstName)
+            .containsExactly("Betty", "Harold");
+    }
+}
@@ -0,0 +1,146 @@
+package org.springframework.samples.petclinic.customers.model;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.samples.petclinic.customers.model.OwnerSpecifications.lastNameStartsWith;
+
+/**
+ * Compares owner search strategies over a generated dataset:
+ * the former full scan filtered and sorted in memory, the indexed prefix query and the trigram typeahead index.
+ * <p>
+ * Run with {@code mvn test -Dtest=OwnerSearchBenchmarkTest -Dbenchmark=true [-Dbenchmark.owners=1000000]}.
+ * The persistence context is cleared after each query, as each request gets its own: left to grow within the
+ * test transaction, every query would flush all the owners read before it.
+ */
+@DataJpaTest(showSql = false)
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class OwnerSearchBenchmarkTest {
+
+    private static final String[] SYLLABLES = {"an", "ber", "cal", "dor", "el", "fin", "gar", "hol", "is", "jen",
+        "kar", "lem", "mor", "nel", "os", "per", "quin", "ros", "sel", "tor", "ul", "ver", "wil", "yan", "zel"};
+
+    private static final int QUERIES = 200;
+
+    // rounds of the queries run before measuring them, enough for the JIT to compile the Spring Data and Hibernate
+    // call path
+    private static final int WARM_UP_ROUNDS = 10;
+
+    private static final Logger log = LoggerFactory.getLogger(OwnerSearchBenchmarkTest.class);
+
+    @Autowired
+    OwnerRepository ownerRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Test
+    void compareSearchStrategies() {
+        int owners = Integer.getInteger("benchmark.owners", 1_000_000);
+        Random random = new Random(42);
+        generateOwners(owners, random);
+
+        List<String> prefixes = new ArrayList<>();
+        for (int i = 0; i < QUERIES; i++) {
+            prefixes.add(capitalize(SYLLABLES[random.nextInt(SYLLABLES.length)] + SYLLABLES[random.nextInt(SYLLABLES.length)]));
+        }
+        // what is typed first, each matching a large share of the owners
+        List<String> trigrams = prefixes.stream().map(prefix -> prefix.substring(0, 3)).toList();
+
+        OwnerTypeaheadIndex typeaheadIndex = new OwnerTypeaheadIndex(ownerRepository, true);
+        long loadStart = System.nanoTime();
+        typeaheadIndex.load();
+        long loadMillis = (System.nanoTime() - loadStart) / 1_000_000;
+
+        double[] scan = measure(prefixes.subList(0, 5), 1, prefix -> {
+            try (Stream<OwnerSummary> all = ownerRepository.streamAllSummaries()) {
+                return all.filter(owner -> owner.lastName().startsWith(prefix))
+                    .sorted(Comparator.comparing(OwnerSummary::lastName).thenComparing(OwnerSummary::id))
+                    .limit(20)
+                    .toList();
+            }
+        });
+        double[] indexed = measure(prefixes, WARM_UP_ROUNDS, prefix -> ownerRepository.findBy(
+            lastNameStartsWith(prefix), query -> query.sortBy(Sort.by("lastName", "id")).limit(20).all()));
+        double[] typeahead = measure(prefixes, WARM_UP_ROUNDS, prefix -> typeaheadIndex.search(prefix, 20));
+        double[] typeaheadTrigrams = measure(trigrams, WARM_UP_ROUNDS, trigram -> typeaheadIndex.search(trigram, 20));
+
+        log.info("Owner search over {} owners (trigram index loaded in {} ms), mean and p99 per query:",
+            owners, loadMillis);
+        log("full scan + in-memory filter", scan);
+        log("indexed prefix query", indexed);
+        log("trigram index, 5 letters", typeahead);
+        log("trigram index, 3 letters", typeaheadTrigrams);
+
+        assertThat(indexed[0]).isLessThan(scan[0]);
+    }
+
+    private void generateOwners(int owners, Random random) {
+        jdbcTemplate.execute("ALTER TABLE owners ALTER COLUMN id RESTART WITH 100");
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < owners; i++) {
+            String lastName = capitalize(SYLLABLES[random.nextInt(SYLLABLES.length)]
+                + SYLLABLES[random.nextInt(SYLLABLES.length)] + SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            String firstName = capitalize(SYLLABLES[random.nextInt(SYLLABLES.length)] + SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            batch.add(new Object[]{firstName, lastName, i + " Main St.", "City" + random.nextInt(500),
+                String.valueOf(6_080_000_000L + random.nextInt(10_000_000))});
+            if (batch.size() == 5_000 || i == owners - 1) {
+                jdbcTemplate.batchUpdate(
+                    "INSERT INTO owners (first_name, last_name, address, city, telephone) VALUES (?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * @return the mean and the 99th percentile of the query times, in microseconds
+     */
+    private double[] measure(List<String> queries, int warmUpRounds, Function<String, List<?>> search) {
+        for (int round = 0; round < warmUpRounds; round++) {
+            queries.forEach(query -> {
+                search.apply(query);
+                entityManager.clear();
+            });
+        }
+        long[] nanos = new long[queries.size()];
+        for (int i = 0; i < queries.size(); i++) {
+            long start = System.nanoTime();
+            search.apply(queries.get(i));
+            nanos[i] = System.nanoTime() - start;
+            entityManager.clear();
+        }
+        Arrays.sort(nanos);
+        return new double[] {Arrays.stream(nanos).average().orElseThrow() / 1_000.0,
+            nanos[(int) Math.ceil(nanos.length * 0.99) - 1] / 1_000.0};
+    }
+
+    private static void log(String strategy, double[] micros) {
+        log.info("  {} : {} us {} us", String.format("%-28s", strategy), String.format("%,12.1f", micros[0]),
+            String.format("%,12.1f", micros[1]));
+    }
+
+    private static String capitalize(String value) {
+        return Character.toUpperCase(value.charAt(0)) + value.substring(1);
+    }
+}
@@ -0,0 +1,56 @@
+package org.springframework.samples.petclinic.customers.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OwnerTest {
+
+    @Test
+    void shouldSortPetsByNameIgnoringCase() {
+        Owner owner = new Owner();
+        owner.addPet(pet("max"));
+        owner.addPet(pet(null));
+        owner.addPet(pet("Basil"));
+        owner.addPet(pet("Leo"));
+
+        assertThat(owner.getPets()).extracting(Pet::getName).containsExactly("Basil", "Leo", "max", null);
+    }
+
+    @Test
+    void shouldReuseSortedPetsUntilChanged() {
+        Owner owner = new Owner();
+        owner.addPet(pet("Leo"));
+        Pet basil = pet("Basil");
+        owner.addPet(basil);
+
+        List<Pet> pets = owner.getPets();
+        assertThat(owner.getPets()).isSameAs(pets);
+
+        owner.addPet(pet("Jewel"));
+        assertThat(owner.getPets()).extracting(Pet::getName).containsExactly("Basil", "Jewel", "Leo");
+
+        basil.setName("Rosy");
+        assertThat(owner.getPets()).extracting(Pet::getName).containsExactly("Jewel", "Leo", "Rosy");
+    }
+
+    @Test
+    void shouldFindANewPetInItsOwnerOnceSaved() {
+        Owner owner = new Owner();
+        Pet pet = pet("Leo");
+        owner.addPet(pet);
+
+        pet.setId(7);
+
+        assertThat(owner.getPetsInternal()).contains(pet);
+        assertThat(owner.getPetsInternal().remove(pet)).isTrue();
+    }
+
+    private static Pet pet(String name) {
+        Pet pet = new Pet();
+        pet.setName(name);
+        return pet;
+    }
+}
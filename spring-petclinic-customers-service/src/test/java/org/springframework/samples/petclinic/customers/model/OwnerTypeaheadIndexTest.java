@@ -0,0 +1,83 @@
+package org.springframework.samples.petclinic.customers.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OwnerTypeaheadIndexTest {
+
+    private OwnerTypeaheadIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new OwnerTypeaheadIndex(mock(OwnerRepository.class), true);
+        index.index(new OwnerSummary(1, "George", "Franklin", "Madison", "6085551023"));
+        index.index(new OwnerSummary(2, "Betty", "Davis", "Sun Prairie", "6085551749"));
+        index.index(new OwnerSummary(4, "Harold", "Davis", "Windsor", "6085553198"));
+        index.index(new OwnerSummary(6, "Jean", "Coleman", "Monona", "6085552654"));
+    }
+
+    @Test
+    void findsOwnersByAnyPartOfTheirName() {
+        assertThat(index.search("dav", 10)).extracting(OwnerSummary::id).containsExactly(2, 4);
+        assertThat(index.search("LEMA", 10)).extracting(OwnerSummary::id).containsExactly(6);
+        assertThat(index.search("rge fra", 10)).extracting(OwnerSummary::id).containsExactly(1);
+    }
+
+    @Test
+    void requiresEveryTrigramOfTheQuery() {
+        assertThat(index.search("davix", 10)).isEmpty();
+    }
+
+    @Test
+    void honoursLimit() {
+        assertThat(index.search("avi", 1)).hasSize(1);
+    }
+
+    @Test
+    void returnsTheFirstOwnersByLastNameWhateverTheirId() {
+        index.index(new OwnerSummary(9, "Jean", "Abbott", "Monona", "6085555388"));
+
+        assertThat(index.search("jea", 1)).extracting(OwnerSummary::id).containsExactly(9);
+        assertThat(index.search("jea", 10)).extracting(OwnerSummary::id).containsExactly(9, 6);
+    }
+
+    @Test
+    void ranksOwnersSavedAfterTheLoadAmongTheLoadedOnes() {
+        OwnerRepository ownerRepository = mock(OwnerRepository.class);
+        when(ownerRepository.streamAllSummaries()).thenReturn(Stream.of(
+            new OwnerSummary(1, "Jean", "Franklin", "Madison", "6085551023"),
+            new OwnerSummary(2, "Jean", "Davis", "Sun Prairie", "6085551749"),
+            new OwnerSummary(3, "Jean", "Escobito", "McFarland", "6085558763"),
+            new OwnerSummary(4, "Jean", "Black", "Windsor", "6085553198")));
+        OwnerTypeaheadIndex loaded = new OwnerTypeaheadIndex(ownerRepository, true);
+        loaded.load();
+        loaded.index(new OwnerSummary(5, "Jean", "Coleman", "Monona", "6085552654"));
+        loaded.index(new OwnerSummary(4, "Jean", "Rodriquez", "Windsor", "6085553198"));
+
+        assertThat(loaded.isReady()).isTrue();
+        assertThat(loaded.search("jean", 3)).extracting(OwnerSummary::id).containsExactly(5, 2, 3);
+        assertThat(loaded.search("jean", 10)).extracting(OwnerSummary::id).containsExactly(5, 2, 3, 1, 4);
+        assertThat(loaded.search("black", 10)).isEmpty();
+    }
+
+    @Test
+    void reindexingReplacesPreviousName() {
+        index.index(new OwnerSummary(6, "Jean", "Black", "Monona", "6085552654"));
+
+        assertThat(index.search("coleman", 10)).isEmpty();
+        assertThat(index.search("black", 10)).extracting(OwnerSummary::id).isEqualTo(List.of(6));
+    }
+
+    @Test
+    void rejectsTooShortQueries() {
+        assertThatIllegalArgumentException().isThrownBy(() -> index.search("da", 10));
+    }
+}
@@ -0,0 +1,99 @@
+package org.springframework.samples.petclinic.customers.model;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class PetTypeCacheTest {
+
+    @Autowired
+    PetRepository petRepository;
+
+    @Autowired
+    OwnerRepository ownerRepository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private PetTypeCache petTypeCache;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        petTypeCache = new PetTypeCache(petRepository, meterRegistry);
+        petTypeCache.refresh();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @Test
+    void shouldServeLoadedTypesWithoutQueries() {
+        assertThat(petTypeCache.findAll()).extracting(PetType::getName)
+            .containsExactly("bird", "cat", "dog", "hamster", "lizard", "snake");
+        assertThat(petTypeCache.findById(6)).map(PetType::getName).contains("hamster");
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.size").gauge().value()).isEqualTo(6);
+    }
+
+    @Test
+    void shouldReadThroughTypesAddedAfterLoading() {
+        String etag = petTypeCache.findAllTagged().etag();
+        PetType ferret = new PetType();
+        ferret.setName("ferret");
+        entityManager.persist(ferret);
+        entityManager.flush();
+
+        assertThat(petTypeCache.findById(ferret.getId())).map(PetType::getName).contains("ferret");
+        assertThat(petTypeCache.findById(ferret.getId())).isPresent();
+        assertThat(petTypeCache.findById(999)).isEmpty();
+
+        assertThat(petTypeCache.missCount()).isEqualTo(2);
+        assertThat(petTypeCache.findAllTagged().etag()).isNotEqualTo(etag);
+        assertThat(petTypeCache.hitCount()).isEqualTo(1);
+        assertThat(petTypeCache.findAll()).extracting(PetType::getName).contains("ferret");
+    }
+
+    @Test
+    void savingPetsShouldNotReadTheirType() {
+        Owner owner = ownerRepository.findById(1).orElseThrow();
+        Pet pet = new Pet();
+        pet.setName("Tom");
+        pet.setBirthDate(new Date());
+        pet.setType(petTypeCache.findById(1).orElseThrow());
+        owner.addPet(pet);
+        petRepository.saveAndFlush(pet);
+        entityManager.clear();
+
+        Pet leo = petRepository.findById(1).orElseThrow();
+        entityManager.detach(leo);
+        leo.setType(petTypeCache.findById(2).orElseThrow());
+        petRepository.saveAndFlush(leo);
+
+        assertThat(statistics.getEntityStatistics(PetType.class.getName()).getLoadCount()).isZero();
+        entityManager.clear();
+        assertThat(petRepository.findWithOwnerAndTypeById(1)).map(p -> p.getType().getName()).contains("dog");
+    }
+}
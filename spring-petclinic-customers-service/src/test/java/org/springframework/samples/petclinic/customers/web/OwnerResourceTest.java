@@ -0,0 +1,114 @@
+package org.springframework.samples.petclinic.customers.web;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Limit;
+import org.springframework.samples.petclinic.customers.model.Owner;
+import org.springframework.samples.petclinic.customers.model.OwnerRepository;
+import org.springframework.samples.petclinic.customers.model.OwnerTypeaheadIndex;
+import org.springframework.samples.petclinic.customers.model.PetRepository;
+import org.springframework.samples.petclinic.customers.model.PetSummary;
+import org.springframework.samples.petclinic.customers.web.mapper.OwnerEntityMapper;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(SpringExtension.class)
+@WebMvcTest(OwnerResource.class)
+@ActiveProfiles("test")
+class OwnerResourceTest {
+
+    @Autowired
+    MockMvc mvc;
+
+    @MockBean
+    OwnerRepository ownerRepository;
+
+    @MockBean
+    PetRepository petRepository;
+
+    @MockBean
+    OwnerEntityMapper ownerEntityMapper;
+
+    @MockBean
+    OwnerTypeaheadIndex typeaheadIndex;
+
+    @MockBean
+    EntityManager entityManager;
+
+    @MockBean
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    void shouldReturnNextCursorWhenPageIsFull() throws Exception {
+        given(ownerRepository.findByIdGreaterThanOrderByIdAsc(3, Limit.of(2)))
+            .willReturn(List.of(owner(4, "Davis"), owner(5, "Rodriquez")));
+        given(petRepository.findSummariesByOwnerIdIn(List.of(4, 5)))
+            .willReturn(List.of(new PetSummary(6, "George", 5), new PetSummary(5, "Iggy", 4)));
+
+        mvc.perform(get("/owners/page?after=3&limit=2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items[0].id").value(4))
+            .andExpect(jsonPath("$.items[1].lastName").value("Rodriquez"))
+            .andExpect(jsonPath("$.items[0].pets[0].name").value("Iggy"))
+            .andExpect(jsonPath("$.items[1].pets[0].name").value("George"))
+            .andExpect(jsonPath("$.next").value(5));
+    }
+
+    @Test
+    void shouldReturnNoCursorOnLastPage() throws Exception {
+        given(ownerRepository.findByIdGreaterThanOrderByIdAsc(9, Limit.of(50)))
+            .willReturn(List.of(owner(10, "Estaban")));
+
+        mvc.perform(get("/owners/page?after=9"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items.length()").value(1))
+            .andExpect(jsonPath("$.next").doesNotExist());
+    }
+
+    @Test
+    void shouldStreamOwnersAsNdjson() throws Exception {
+        Owner franklin = owner(1, "Franklin");
+        Owner davis = owner(2, "Davis");
+        given(ownerRepository.streamAllOrderById()).willReturn(Stream.of(franklin, davis));
+
+        MvcResult result = mvc.perform(get("/owners/stream"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+            .andExpect(content().string(
+                matchesPattern("(?s)\\{.*\"lastName\":\"Franklin\".*}\n\\{.*\"lastName\":\"Davis\".*}\n")));
+        verify(entityManager).detach(franklin);
+        verify(entityManager).detach(davis);
+    }
+
+    private static Owner owner(int id, String lastName) {
+        Owner owner = new Owner();
+        owner.setId(id);
+        owner.setFirstName("George");
+        owner.setLastName(lastName);
+        return owner;
+    }
+}
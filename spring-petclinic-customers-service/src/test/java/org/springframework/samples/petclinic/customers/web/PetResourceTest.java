@@ -1,5 +1,6 @@
 package org.springframework.samples.petclinic.customers.web;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.junit.jupiter.api.Test;
@@ -13,6 +14,7 @@ import org.springframework.samples.petclinic.customers.model.OwnerRepository;
 import org.springframework.samples.petclinic.customers.model.Pet;
 import org.springframework.samples.petclinic.customers.model.PetRepository;
 import org.springframework.samples.petclinic.customers.model.PetType;
+import org.springframework.samples.petclinic.customers.model.PetTypeCache;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
@@ -21,6 +23,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import static org.mockito.BDDMockito.given;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -41,12 +44,15 @@ class PetResourceTest {
     @MockBean
     OwnerRepository ownerRepository;
 
+    @MockBean
+    PetTypeCache petTypeCache;
+
     @Test
     void shouldGetAPetInJSonFormat() throws Exception {
 
         Pet pet = setupPet();
 
-        given(petRepository.findById(2)).willReturn(Optional.of(pet));
+        given(petRepository.findWithOwnerAndTypeById(2)).willReturn(Optional.of(pet));
 
 
         mvc.perform(get("/owners/2/pets/2").accept(MediaType.APPLICATION_JSON))
@@ -57,6 +63,23 @@ class PetResourceTest {
             .andExpect(jsonPath("$.type.id").value(6));
     }
 
+    @Test
+    void shouldAnswerNotModifiedWhenPetTypesETagMatches() throws Exception {
+        PetType cat = new PetType();
+        cat.setId(1);
+        cat.setName("cat");
+        given(petTypeCache.findAllTagged()).willReturn(new PetTypeCache.TaggedPetTypes(List.of(cat), "\"v1\""));
+
+        mvc.perform(get("/petTypes"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", "\"v1\""))
+            .andExpect(jsonPath("$[0].name").value("cat"));
+
+        mvc.perform(get("/petTypes").header("If-None-Match", "\"v1\""))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+    }
+
     private Pet setupPet() {
         Owner owner = new Owner();
         owner.setFirstName("George");
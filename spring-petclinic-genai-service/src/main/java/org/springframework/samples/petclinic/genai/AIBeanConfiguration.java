@@ -1,14 +1,29 @@
 package org.springframework.samples.petclinic.genai;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.ai.chat.memory.ChatMemory;
 import org.springframework.ai.chat.memory.InMemoryChatMemory;
 import org.springframework.ai.embedding.EmbeddingModel;
-import org.springframework.ai.vectorstore.SimpleVectorStore;
 import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Scope;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.samples.petclinic.genai.embedding.CachingEmbeddingModel;
+import org.springframework.samples.petclinic.genai.vectorstore.HnswVectorStore;
+import org.springframework.samples.petclinic.vectorsearch.HnswIndex;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.nio.file.Path;
 
 /**
  * A Configuration class for beans used by the Chat Client.
@@ -16,21 +31,102 @@ import org.springframework.web.reactive.function.client.WebClient;
  * @author Oded Shopen
  */
 @Configuration
+@EnableConfigurationProperties(HttpClientProperties.class)
 public class AIBeanConfiguration {
 
+    static final String CUSTOMERS_SERVICE = "customers-service";
+    static final String VETS_SERVICE = "vets-service";
+
 	@Bean
 	public ChatMemory chatMemory() {
 		return new InMemoryChatMemory();
 	}
 
+    /**
+     * The embedding model injected everywhere else: the one of the AI provider behind a cache, persisted in
+     * {@code petclinic.genai.embedding-cache.directory} when it is set.
+     */
+    @Bean
+    @Primary
+    CachingEmbeddingModel cachingEmbeddingModel(EmbeddingModel embeddingModel,
+                                                @Value("${petclinic.genai.embedding-cache.model-id}") String modelId,
+                                                @Value("${petclinic.genai.embedding-cache.maximum-memory:16MB}") DataSize maximumMemory,
+                                                @Value("${petclinic.genai.embedding-cache.batch-size:256}") int batchSize,
+                                                @Value("${petclinic.genai.embedding-cache.directory:}") String directory,
+                                                MeterRegistry meterRegistry) {
+        return new CachingEmbeddingModel(embeddingModel, modelId, maximumMemory, batchSize,
+            directory.isEmpty() ? null : Path.of(directory), meterRegistry);
+    }
+
+    /**
+     * Approximate nearest neighbour search: see {@link HnswIndex} for the recall/latency trade-off of {@code m},
+     * {@code ef-construction}, {@code ef-search} and {@code precision}.
+     */
 	@Bean
-	VectorStore vectorStore(EmbeddingModel embeddingModel) {
-		return new SimpleVectorStore(embeddingModel);
+	VectorStore vectorStore(EmbeddingModel embeddingModel,
+                            @Value("${petclinic.genai.vector-store.hnsw.m:16}") int m,
+                            @Value("${petclinic.genai.vector-store.hnsw.ef-construction:200}") int efConstruction,
+                            @Value("${petclinic.genai.vector-store.hnsw.ef-search:64}") int efSearch,
+                            @Value("${petclinic.genai.vector-store.hnsw.precision:int8-reranked}") HnswIndex.Precision precision) {
+		return new HnswVectorStore(embeddingModel, m, efConstruction, efSearch, precision);
 	}
 	
+    /**
+     * One pool per service called, sized by {@code petclinic.http-client}, so that a slow service cannot take the
+     * connections of the other. Pool gauges are published to Micrometer under
+     * {@code reactor.netty.connection.provider.*}.
+     */
+    @Bean(destroyMethod = "dispose")
+    ConnectionProvider customersServiceConnectionProvider(HttpClientProperties properties) {
+        return connectionProvider(CUSTOMERS_SERVICE, properties.pool(CUSTOMERS_SERVICE));
+    }
+
+    @Bean(destroyMethod = "dispose")
+    ConnectionProvider vetsServiceConnectionProvider(HttpClientProperties properties) {
+        return connectionProvider(VETS_SERVICE, properties.pool(VETS_SERVICE));
+    }
+
+    @Bean
+    @LoadBalanced
+    public WebClient.Builder customersServiceWebClientBuilder(
+        @Qualifier("customersServiceConnectionProvider") ConnectionProvider connectionProvider,
+        HttpClientProperties properties) {
+        return webClientBuilder(connectionProvider, properties.pool(CUSTOMERS_SERVICE));
+    }
+
     @Bean
     @LoadBalanced
-    public WebClient.Builder loadBalancedWebClientBuilder() {
+    public WebClient.Builder vetsServiceWebClientBuilder(
+        @Qualifier("vetsServiceConnectionProvider") ConnectionProvider connectionProvider,
+        HttpClientProperties properties) {
+        return webClientBuilder(connectionProvider, properties.pool(VETS_SERVICE));
+    }
+
+    /**
+     * The builder of the other clients, such as the one of the AI provider, which do not resolve their host through
+     * the load balancer.
+     */
+    @Bean
+    @Primary
+    @Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
+    public WebClient.Builder webClientBuilder() {
         return WebClient.builder();
     }
+
+    private static ConnectionProvider connectionProvider(String name, HttpClientProperties.Pool pool) {
+        return ConnectionProvider.builder(name)
+            .maxConnections(pool.maxConnections())
+            .pendingAcquireMaxCount(pool.pendingAcquireMaxCount())
+            .pendingAcquireTimeout(pool.pendingAcquireTimeout())
+            .maxIdleTime(pool.maxIdleTime())
+            .maxLifeTime(pool.maxLifeTime())
+            .evictInBackground(pool.evictInBackground())
+            .metrics(true)
+            .build();
+    }
+
+    private static WebClient.Builder webClientBuilder(ConnectionProvider connectionProvider, HttpClientProperties.Pool pool) {
+        HttpClient httpClient = HttpClient.create(connectionProvider).keepAlive(pool.keepAlive());
+        return WebClient.builder().clientConnector(new ReactorClientHttpConnector(httpClient));
+    }
 }
@@ -6,7 +6,8 @@ import java.util.stream.Collectors;
 import org.springframework.ai.document.Document;
 import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.VectorStore;
-import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.MediaType;
 import org.springframework.samples.petclinic.genai.dto.AddPetRequest;
 import org.springframework.samples.petclinic.genai.dto.AddedPetResponse;
 import org.springframework.samples.petclinic.genai.dto.OwnerDetails;
@@ -17,34 +18,35 @@ import org.springframework.samples.petclinic.genai.dto.PetDetails;
 import org.springframework.samples.petclinic.genai.dto.Vet;
 import org.springframework.samples.petclinic.genai.dto.VetRequest;
 import org.springframework.samples.petclinic.genai.dto.VetResponse;
+import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
+@Service
 public class AIDataProvider {
 
-    private final WebClient.Builder webClientBuilder;
+    private final WebClient webClient;
     private final VectorStore vectorStore;
 
-    public AIDataProvider(WebClient.Builder webClientBuilder, VectorStore vectorStore) {
-        this.webClientBuilder = webClientBuilder;
+    public AIDataProvider(@Qualifier("customersServiceWebClientBuilder") WebClient.Builder webClientBuilder, VectorStore vectorStore) {
+        this.webClient = webClientBuilder.build();
         this.vectorStore = vectorStore;
     }
 
     public OwnersResponse getAllOwners() {
-        WebClient webClient = webClientBuilder.build();
-
+        // NDJSON stream: owners are decoded one by one as customers-service reads them
         List<OwnerDetails> owners = webClient.get()
-                .uri("http://customers-service/owners")
+                .uri("http://customers-service/owners/stream")
+                .accept(MediaType.APPLICATION_NDJSON)
                 .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<List<OwnerDetails>>() {})
+                .bodyToFlux(OwnerDetails.class)
+                .collectList()
                 .block();
 
         return new OwnersResponse(owners);
     }
 
     public AddedPetResponse addPetToOwner(AddPetRequest request) {
-        WebClient webClient = webClientBuilder.build();
-
         PetDetails response = webClient.post()
                 .uri("http://customers-service/owners/" + request.ownerId() + "/pets")
                 .bodyValue(request.pet())
@@ -56,8 +58,6 @@ public class AIDataProvider {
     }
 
     public OwnerResponse addOwnerToPetclinic(OwnerRequest ownerRequest) {
-        WebClient webClient = webClientBuilder.build();
-
         OwnerDetails response = webClient.post()
                 .uri("http://customers-service/owners")
                 .bodyValue(ownerRequest)
@@ -0,0 +1,220 @@
+package org.springframework.samples.petclinic.genai;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.samples.petclinic.genai.dto.VetChange;
+import org.springframework.samples.petclinic.genai.dto.VetChanges;
+import org.springframework.samples.petclinic.genai.vectorstore.HnswVectorStore;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the vector store up to date with the change feed of vets-service, instead of embedding every vet again: only
+ * the vets whose version changed are embedded, {@code petclinic.genai.vet-changes.batch-size} per call to the
+ * model, and upserted under the id {@code vet-<id>}. The document of a vet is its JSON object, with the version of
+ * the change in its {@code version} metadata.
+ * <p>
+ * Progress is checkpointed in {@code petclinic.genai.vector-store.directory}: the store as a snapshot, at most every
+ * {@link #CHECKPOINT_INTERVAL} while changes are embedded, then the cursor of the feed once they are all stored. After
+ * a restart the store is loaded from its snapshot and the feed is read from that cursor; the changes replayed since
+ * the last checkpoint are not embedded again, their documents being already at their version.
+ */
+@Component
+public class VetChangeIndexer {
+
+    static final String ID_PREFIX = "vet-";
+    static final String VERSION = "version";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Duration CHECKPOINT_INTERVAL = Duration.ofSeconds(10);
+    private static final String SNAPSHOT = "vectorstore.bin";
+    private static final String CURSOR = "vet-changes.cursor";
+
+    private final Logger logger = LoggerFactory.getLogger(VetChangeIndexer.class);
+
+    private final HnswVectorStore vectorStore;
+    private final EmbeddingModel embeddingModel;
+    private final WebClient webClient;
+    private final Path directory;
+    private final Duration pollInterval;
+    private final int batchSize;
+
+    private String cursor;
+    private Disposable polling;
+
+    public VetChangeIndexer(VectorStore vectorStore, EmbeddingModel embeddingModel,
+                            @Qualifier("vetsServiceWebClientBuilder") WebClient.Builder webClientBuilder,
+                            @Value("${petclinic.genai.vector-store.directory}") Path directory,
+                            @Value("${petclinic.genai.vet-changes.poll-interval:1m}") Duration pollInterval,
+                            @Value("${petclinic.genai.vet-changes.batch-size:64}") int batchSize) {
+        this.vectorStore = (HnswVectorStore) vectorStore;
+        this.embeddingModel = embeddingModel;
+        this.webClient = webClientBuilder.build();
+        this.directory = directory;
+        this.pollInterval = pollInterval;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Loads the vector store and the cursor of the last checkpoint, if any.
+     *
+     * @return whether there was a checkpoint to resume from
+     */
+    public synchronized boolean resume() throws IOException {
+        Path snapshot = directory.resolve(SNAPSHOT);
+        if (!Files.exists(snapshot)) {
+            return false;
+        }
+        vectorStore.loadSnapshot(new FileSystemResource(snapshot));
+        Path cursorFile = directory.resolve(CURSOR);
+        cursor = Files.exists(cursorFile) ? Files.readString(cursorFile, StandardCharsets.UTF_8) : null;
+        return true;
+    }
+
+    /**
+     * Polls the change feed every {@code petclinic.genai.vet-changes.poll-interval}, starting now. A poll failing,
+     * for example while vets-service is down, is retried with the next one.
+     */
+    public void start() {
+        polling = Flux.interval(Duration.ZERO, pollInterval)
+            .onBackpressureDrop()
+            .concatMap(tick -> fetch()
+                .publishOn(Schedulers.boundedElastic())
+                .doOnNext(this::apply)
+                .onErrorResume(e -> {
+                    logger.warn("Vet changes not indexed, retrying in {}", pollInterval, e);
+                    return Mono.empty();
+                }))
+            .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (polling != null) {
+            polling.dispose();
+        }
+    }
+
+    private Mono<VetChanges> fetch() {
+        String since = currentCursor();
+        return (since == null
+                ? webClient.get().uri("http://vets-service/vets/changes")
+                : webClient.get().uri("http://vets-service/vets/changes?cursor={cursor}", since))
+            .retrieve()
+            .bodyToMono(VetChanges.class);
+    }
+
+    private synchronized String currentCursor() {
+        return cursor;
+    }
+
+    /**
+     * Embeds the vets created or updated, deletes the others, then checkpoints the store and the cursor of the
+     * changes.
+     */
+    public synchronized void apply(VetChanges changes) {
+        // the last change of each vet, in the order of the feed
+        Map<String, VetChange> latest = new LinkedHashMap<>();
+        for (VetChange change : changes.changes()) {
+            latest.remove(ID_PREFIX + change.vetId());
+            latest.put(ID_PREFIX + change.vetId(), change);
+        }
+        List<String> deleted = new ArrayList<>();
+        if (changes.reset()) {
+            for (String id : vectorStore.ids()) {
+                if (id.startsWith(ID_PREFIX) && !latest.containsKey(id)) {
+                    deleted.add(id);
+                }
+            }
+        }
+        List<Document> changed = new ArrayList<>();
+        latest.forEach((id, change) -> {
+            if (change.type() == VetChange.Type.DELETED) {
+                deleted.add(id);
+                return;
+            }
+            boolean unchanged = vectorStore.findById(id)
+                .filter(stored -> change.version().equals(stored.getMetadata().get(VERSION)))
+                .isPresent();
+            if (!unchanged) {
+                changed.add(new Document(id, content(change), Map.of(VERSION, change.version())));
+            }
+        });
+
+        long lastCheckpoint = System.nanoTime();
+        for (int from = 0; from < changed.size(); from += batchSize) {
+            List<Document> batch = changed.subList(from, Math.min(from + batchSize, changed.size()));
+            List<float[]> embeddings = embeddingModel.embed(batch.stream().map(Document::getContent).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).setEmbedding(embeddings.get(i));
+            }
+            vectorStore.add(batch);
+            if (System.nanoTime() - lastCheckpoint > CHECKPOINT_INTERVAL.toNanos()) {
+                checkpoint(null);
+                lastCheckpoint = System.nanoTime();
+            }
+        }
+        if (!deleted.isEmpty()) {
+            vectorStore.delete(deleted);
+        }
+        if (!changed.isEmpty() || !deleted.isEmpty() || !changes.cursor().equals(cursor)) {
+            checkpoint(changes.cursor());
+            logger.info("{} vets embedded and {} deleted from the vector store", changed.size(), deleted.size());
+        }
+    }
+
+    private static String content(VetChange change) {
+        try {
+            return MAPPER.writeValueAsString(change.vet());
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Vet " + change.vetId() + " not written as JSON", e);
+        }
+    }
+
+    /**
+     * Writes the snapshot, then the cursor if given, each to a temporary file renamed over the previous one, which
+     * leaves the file the store was loaded from, still mapped, intact.
+     */
+    private void checkpoint(String newCursor) {
+        try {
+            Files.createDirectories(directory);
+            Path snapshot = Files.createTempFile(directory, SNAPSHOT, ".tmp");
+            vectorStore.saveSnapshot(snapshot);
+            Files.move(snapshot, directory.resolve(SNAPSHOT), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+            if (newCursor != null) {
+                Path cursorFile = Files.writeString(Files.createTempFile(directory, CURSOR, ".tmp"), newCursor,
+                    StandardCharsets.UTF_8);
+                Files.move(cursorFile, directory.resolve(CURSOR), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+                cursor = newCursor;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Vector store not checkpointed to " + directory, e);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package org.springframework.samples.petclinic.genai.dto;
+
+import java.util.Map;
+
+/**
+ * Simple Data Transfer Object representing a vet created, updated or deleted in the change feed of vets-service.
+ * The vet is kept as its JSON object, from which its document in the vector store is written.
+ *
+ * @param version a hash of the content of the vet, stored with its document so that it is only embedded again when
+ *                it changes
+ */
+public record VetChange(
+    long sequence,
+    Integer vetId,
+    String version,
+    Type type,
+    Map<String, Object> vet) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
@@ -0,0 +1,13 @@
+package org.springframework.samples.petclinic.genai.dto;
+
+import java.util.List;
+
+/**
+ * Simple Data Transfer Object representing the changes of the vets since a cursor. A reset lists every vet as
+ * created, those it does not list being deleted.
+ */
+public record VetChanges(
+    String cursor,
+    boolean reset,
+    List<VetChange> changes) {
+}
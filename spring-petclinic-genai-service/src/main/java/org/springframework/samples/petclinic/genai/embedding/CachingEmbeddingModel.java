@@ -0,0 +1,207 @@
+package org.springframework.samples.petclinic.genai.embedding;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.document.MetadataMode;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link EmbeddingModel} that only calls the model for the texts it has not embedded yet, so that repeated queries,
+ * such as the {@code fallback} query of {@code AIDataProvider}, and documents embedded again cost neither a call to
+ * the provider nor its latency.
+ * <ul>
+ *   <li>Embeddings are kept in memory, the least used evicted beyond {@code maximumMemory}, and optionally in one
+ *   file per embedding under {@code directory}, which survives restarts and is never evicted.</li>
+ *   <li>Both are keyed by a SHA-256 of the model, the dimensions requested and the text, so that embeddings of
+ *   another model are never returned.</li>
+ *   <li>The texts missing from a request are deduplicated and sent to the model {@code batchSize} per call.</li>
+ * </ul>
+ * Hits and misses are exported in the {@code cache.gets} meter, tagged {@code cache=embeddings} for the memory and
+ * {@code cache=embeddingFiles} for the files. The embeddings returned are shared and must not be modified.
+ */
+public class CachingEmbeddingModel implements EmbeddingModel {
+
+    static final String CACHE_NAME = "embeddings";
+    static final String FILES_CACHE_NAME = "embeddingFiles";
+
+    private final Logger logger = LoggerFactory.getLogger(CachingEmbeddingModel.class);
+
+    private final EmbeddingModel delegate;
+    private final String modelId;
+    private final int batchSize;
+    /** null when the embeddings are only cached in memory */
+    private final Path directory;
+    private final Cache<String, float[]> cache;
+    private final Counter fileHits;
+    private final Counter fileMisses;
+
+    /**
+     * @param modelId the model of the delegate when a request does not name one
+     */
+    public CachingEmbeddingModel(EmbeddingModel delegate, String modelId, DataSize maximumMemory, int batchSize,
+                                 Path directory, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.modelId = modelId;
+        this.batchSize = batchSize;
+        this.directory = directory;
+        this.cache = Caffeine.newBuilder()
+            .maximumWeight(maximumMemory.toBytes())
+            .<String, float[]>weigher((key, embedding) -> embedding.length * Float.BYTES)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        this.fileHits = Counter.builder("cache.gets").tag("cache", FILES_CACHE_NAME).tag("result", "hit")
+            .description("Embeddings read from their file").register(meterRegistry);
+        this.fileMisses = Counter.builder("cache.gets").tag("cache", FILES_CACHE_NAME).tag("result", "miss")
+            .description("Embeddings without a file, asked to the model").register(meterRegistry);
+    }
+
+    @Override
+    public EmbeddingResponse call(EmbeddingRequest request) {
+        List<String> texts = request.getInstructions();
+        float[][] embeddings = new float[texts.size()][];
+        // the positions of each text missing from the cache, by key
+        Map<String, List<Integer>> missing = new LinkedHashMap<>();
+        for (int i = 0; i < texts.size(); i++) {
+            String key = key(request.getOptions(), texts.get(i));
+            embeddings[i] = cached(key);
+            if (embeddings[i] == null) {
+                missing.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+            }
+        }
+
+        List<String> keys = new ArrayList<>(missing.keySet());
+        for (int from = 0; from < keys.size(); from += batchSize) {
+            List<String> batchKeys = keys.subList(from, Math.min(from + batchSize, keys.size()));
+            List<String> batch = batchKeys.stream().map(key -> texts.get(missing.get(key).get(0))).toList();
+            EmbeddingResponse response = delegate.call(new EmbeddingRequest(batch, request.getOptions()));
+            for (Embedding result : response.getResults()) {
+                String key = batchKeys.get(result.getIndex());
+                store(key, result.getOutput());
+                for (int i : missing.get(key)) {
+                    embeddings[i] = result.getOutput();
+                }
+            }
+        }
+
+        List<Embedding> results = new ArrayList<>(embeddings.length);
+        for (int i = 0; i < embeddings.length; i++) {
+            results.add(new Embedding(embeddings[i], i));
+        }
+        return new EmbeddingResponse(results);
+    }
+
+    /**
+     * Embeds the content of the document with its metadata, as the embedding models of Spring AI do by default.
+     */
+    @Override
+    public float[] embed(Document document) {
+        return embed(document.getFormattedContent(MetadataMode.EMBED));
+    }
+
+    @Override
+    public int dimensions() {
+        return delegate.dimensions();
+    }
+
+    private String key(EmbeddingOptions options, String text) {
+        String model = options != null && options.getModel() != null ? options.getModel() : modelId;
+        Integer dimensions = options != null ? options.getDimensions() : null;
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((model + '\n' + dimensions + '\n').getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required by every Java platform", e);
+        }
+    }
+
+    private float[] cached(String key) {
+        float[] embedding = cache.getIfPresent(key);
+        if (embedding != null || directory == null) {
+            return embedding;
+        }
+        embedding = read(file(key));
+        if (embedding == null) {
+            fileMisses.increment();
+            return null;
+        }
+        fileHits.increment();
+        cache.put(key, embedding);
+        return embedding;
+    }
+
+    private void store(String key, float[] embedding) {
+        cache.put(key, embedding);
+        if (directory != null) {
+            write(file(key), embedding);
+        }
+    }
+
+    /**
+     * Spreads the files over 256 directories named after the first byte of their key.
+     */
+    private Path file(String key) {
+        return directory.resolve(key.substring(0, 2)).resolve(key + ".bin");
+    }
+
+    /**
+     * @return the embedding of the file, or {@code null} if there is none or it cannot be read
+     */
+    private float[] read(Path file) {
+        try {
+            ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+            float[] embedding = new float[bytes.remaining() / Float.BYTES];
+            bytes.asFloatBuffer().get(embedding);
+            return embedding;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            logger.warn("Embedding not read from {}", file, e);
+            return null;
+        }
+    }
+
+    /**
+     * Writes the float32 embedding to a temporary file renamed to its key, so that a file is never read half written.
+     * An embedding that cannot be written is only kept in memory.
+     */
+    private void write(Path file, float[] embedding) {
+        ByteBuffer bytes = ByteBuffer.allocate(embedding.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        bytes.asFloatBuffer().put(embedding);
+        try {
+            Files.createDirectories(file.getParent());
+            Path written = Files.write(Files.createTempFile(file.getParent(), "embedding", ".tmp"), bytes.array());
+            Files.move(written, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            logger.warn("Embedding not written to {}", file, e);
+        }
+    }
+}
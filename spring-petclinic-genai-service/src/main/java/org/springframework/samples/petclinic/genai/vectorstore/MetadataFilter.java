@@ -0,0 +1,82 @@
+package org.springframework.samples.petclinic.genai.vectorstore;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+import org.springframework.ai.vectorstore.filter.Filter;
+
+/**
+ * Evaluates the filter expression of a {@code SearchRequest} against the metadata of a document. Numbers are compared
+ * by value whatever their type, other values by their text.
+ */
+final class MetadataFilter implements Predicate<Map<String, Object>> {
+
+    private final Filter.Expression expression;
+
+    MetadataFilter(Filter.Expression expression) {
+        this.expression = expression;
+    }
+
+    @Override
+    public boolean test(Map<String, Object> metadata) {
+        return test(expression, metadata);
+    }
+
+    private static boolean test(Filter.Operand operand, Map<String, Object> metadata) {
+        if (operand instanceof Filter.Group group) {
+            return test(group.content(), metadata);
+        }
+        Filter.Expression expression = (Filter.Expression) operand;
+        return switch (expression.type()) {
+            case AND -> test(expression.left(), metadata) && test(expression.right(), metadata);
+            case OR -> test(expression.left(), metadata) || test(expression.right(), metadata);
+            case NOT -> !test(expression.left(), metadata);
+            default -> compare(expression, metadata);
+        };
+    }
+
+    private static boolean compare(Filter.Expression expression, Map<String, Object> metadata) {
+        Object actual = metadata.get(key((Filter.Key) expression.left()));
+        Object expected = ((Filter.Value) expression.right()).value();
+        return switch (expression.type()) {
+            case EQ -> equal(actual, expected);
+            case NE -> !equal(actual, expected);
+            case GT -> actual != null && compare(actual, expected) > 0;
+            case GTE -> actual != null && compare(actual, expected) >= 0;
+            case LT -> actual != null && compare(actual, expected) < 0;
+            case LTE -> actual != null && compare(actual, expected) <= 0;
+            case IN -> in(actual, expected);
+            case NIN -> !in(actual, expected);
+            default -> throw new IllegalArgumentException("Unsupported filter expression " + expression);
+        };
+    }
+
+    private static String key(Filter.Key key) {
+        String name = key.key();
+        if (name.length() > 1 && (name.startsWith("'") || name.startsWith("\""))) {
+            return name.substring(1, name.length() - 1);
+        }
+        return name;
+    }
+
+    private static boolean in(Object actual, Object expected) {
+        return expected instanceof Collection<?> values && values.stream().anyMatch(value -> equal(actual, value));
+    }
+
+    private static boolean equal(Object actual, Object expected) {
+        if (actual instanceof Number && expected instanceof Number) {
+            return compare(actual, expected) == 0;
+        }
+        return actual != null && expected != null ? actual.toString().equals(expected.toString())
+            : Objects.equals(actual, expected);
+    }
+
+    private static int compare(Object actual, Object expected) {
+        if (actual instanceof Number a && expected instanceof Number b) {
+            return Double.compare(a.doubleValue(), b.doubleValue());
+        }
+        return actual.toString().compareTo(String.valueOf(expected));
+    }
+}
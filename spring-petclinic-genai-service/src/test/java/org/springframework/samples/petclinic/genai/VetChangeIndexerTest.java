@@ -0,0 +1,166 @@
+package org.springframework.samples.petclinic.genai;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.samples.petclinic.genai.dto.VetChange;
+import org.springframework.samples.petclinic.genai.dto.VetChanges;
+import org.springframework.samples.petclinic.genai.vectorstore.HnswVectorStore;
+import org.springframework.samples.petclinic.vectorsearch.HnswIndex;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VetChangeIndexerTest {
+
+    @TempDir
+    Path directory;
+
+    private final FakeEmbeddingModel embeddingModel = new FakeEmbeddingModel();
+    private HnswVectorStore vectorStore;
+    private VetChangeIndexer indexer;
+
+    @BeforeEach
+    void setUp() {
+        vectorStore = vectorStore();
+        indexer = indexer(vectorStore);
+    }
+
+    @Test
+    void resetShouldDeleteTheVetsItDoesNotList() {
+        indexer.apply(new VetChanges("1", false, List.of(created(1, "Carter"), created(2, "Leary"))));
+        Document owner = new Document("owner-1", "George Franklin", Map.of());
+        owner.setEmbedding(new float[] {1, 0});
+        vectorStore.add(List.of(owner));
+
+        indexer.apply(new VetChanges("2", true, List.of(created(2, "Leary"))));
+
+        assertThat(vectorStore.ids()).containsExactlyInAnyOrder("vet-2", "owner-1");
+        assertThat(embeddingModel.embedded).containsExactly(List.of(json(1, "Carter"), json(2, "Leary")));
+    }
+
+    @Test
+    void shouldOnlyEmbedTheLastVersionOfEachVetOnce() {
+        indexer.apply(new VetChanges("1", false, List.of(created(1, "Carter"), created(2, "Leary"),
+            updated(1, "Carter-Douglas"), deleted(2))));
+
+        assertThat(embeddingModel.embedded).containsExactly(List.of(json(1, "Carter-Douglas")));
+        assertThat(vectorStore.ids()).containsExactly("vet-1");
+        assertThat(vectorStore.findById("vet-1")).get()
+            .extracting(Document::getContent, document -> document.getMetadata().get(VetChangeIndexer.VERSION))
+            .containsExactly(json(1, "Carter-Douglas"), "v-Carter-Douglas");
+    }
+
+    @Test
+    void shouldNotEmbedAVetWhoseVersionIsStored() {
+        indexer.apply(new VetChanges("1", false, List.of(created(1, "Carter"))));
+
+        // same version, even if the JSON of the vet were written differently
+        indexer.apply(new VetChanges("2", true, List.of(new VetChange(2, 1, "v-Carter", VetChange.Type.CREATED,
+            Map.of("lastName", "Carter", "id", 1)))));
+
+        assertThat(embeddingModel.embedded).hasSize(1);
+    }
+
+    @Test
+    void shouldResumeFromTheLastCheckpoint() throws IOException {
+        assertThat(indexer.resume()).isFalse();
+        indexer.apply(new VetChanges("1", false, List.of(created(1, "Carter"), created(2, "Leary"))));
+
+        HnswVectorStore restartedStore = vectorStore();
+        assertThat(indexer(restartedStore).resume()).isTrue();
+
+        assertThat(restartedStore.ids()).containsExactlyInAnyOrder("vet-1", "vet-2");
+        assertThat(restartedStore.findById("vet-2")).get()
+            .extracting(document -> document.getMetadata().get(VetChangeIndexer.VERSION)).isEqualTo("v-Leary");
+        assertThat(Files.readString(directory.resolve("vet-changes.cursor"), StandardCharsets.UTF_8)).isEqualTo("1");
+    }
+
+    @Test
+    void changesReplayedAfterARestartShouldNotBeEmbeddedAgain() throws IOException {
+        VetChanges changes = new VetChanges("1", false, List.of(created(1, "Carter"), updated(1, "Carter-Douglas")));
+        indexer.apply(changes);
+        HnswVectorStore restartedStore = vectorStore();
+        VetChangeIndexer restarted = indexer(restartedStore);
+        restarted.resume();
+
+        restarted.apply(changes);
+        restarted.apply(new VetChanges("2", false, List.of(updated(1, "Carter-Douglas"), created(3, "Douglas"))));
+
+        assertThat(embeddingModel.embedded).containsExactly(List.of(json(1, "Carter-Douglas")),
+            List.of(json(3, "Douglas")));
+        assertThat(restartedStore.ids()).containsExactlyInAnyOrder("vet-1", "vet-3");
+    }
+
+    private HnswVectorStore vectorStore() {
+        return new HnswVectorStore(embeddingModel, 8, 32, 32, HnswIndex.Precision.FLOAT32);
+    }
+
+    private VetChangeIndexer indexer(HnswVectorStore store) {
+        return new VetChangeIndexer(store, embeddingModel, WebClient.builder(), directory, Duration.ofMinutes(1), 2);
+    }
+
+    private static VetChange created(int id, String lastName) {
+        return new VetChange(0, id, "v-" + lastName, VetChange.Type.CREATED, vet(id, lastName));
+    }
+
+    private static VetChange updated(int id, String lastName) {
+        return new VetChange(0, id, "v-" + lastName, VetChange.Type.UPDATED, vet(id, lastName));
+    }
+
+    private static VetChange deleted(int id) {
+        return new VetChange(0, id, "v-deleted", VetChange.Type.DELETED, null);
+    }
+
+    /**
+     * @return the vet as deserialized from the change feed
+     */
+    private static Map<String, Object> vet(int id, String lastName) {
+        Map<String, Object> vet = new LinkedHashMap<>();
+        vet.put("id", id);
+        vet.put("lastName", lastName);
+        return vet;
+    }
+
+    private static String json(int id, String lastName) {
+        return "{\"id\":" + id + ",\"lastName\":\"" + lastName + "\"}";
+    }
+
+    /**
+     * Records the texts of each call and embeds each text by its length.
+     */
+    private static class FakeEmbeddingModel implements EmbeddingModel {
+
+        private final List<List<String>> embedded = new ArrayList<>();
+
+        @Override
+        public EmbeddingResponse call(EmbeddingRequest request) {
+            embedded.add(request.getInstructions());
+            List<Embedding> embeddings = new ArrayList<>();
+            for (String text : request.getInstructions()) {
+                embeddings.add(new Embedding(new float[] {1, text.length()}, embeddings.size()));
+            }
+            return new EmbeddingResponse(embeddings);
+        }
+
+        @Override
+        public float[] embed(Document document) {
+            return embed(document.getContent());
+        }
+    }
+}
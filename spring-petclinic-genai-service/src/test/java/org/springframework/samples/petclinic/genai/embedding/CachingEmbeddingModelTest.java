@@ -0,0 +1,111 @@
+package org.springframework.samples.petclinic.genai.embedding;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachingEmbeddingModelTest {
+
+    @TempDir
+    Path directory;
+
+    private final StubEmbeddingModel delegate = new StubEmbeddingModel();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void repeatedTextShouldBeServedFromTheCache() {
+        CachingEmbeddingModel model = cachingModel(delegate, "model-a", null, meterRegistry);
+
+        float[] first = model.embed("radiology");
+        float[] second = model.embed("radiology");
+
+        assertThat(second).isEqualTo(first);
+        assertThat(delegate.calls).containsExactly(List.of("radiology"));
+        assertThat(cacheGets(CachingEmbeddingModel.CACHE_NAME, "hit")).isEqualTo(1);
+    }
+
+    @Test
+    void duplicatesShouldBeEmbeddedOncePerBatch() {
+        CachingEmbeddingModel model = cachingModel(delegate, "model-a", null, meterRegistry);
+
+        List<float[]> embeddings = model.embed(List.of("surgery", "dentistry", "surgery", "radiology"));
+
+        assertThat(delegate.calls).containsExactly(List.of("surgery", "dentistry"), List.of("radiology"));
+        assertThat(embeddings).hasSize(4);
+        assertThat(embeddings.get(2)).isEqualTo(embeddings.get(0));
+        assertThat(embeddings.get(3)).isEqualTo(StubEmbeddingModel.embedding("radiology"));
+    }
+
+    @Test
+    void embeddingsOnDiskShouldBeReadBackAfterARestart() {
+        cachingModel(delegate, "model-a", directory, meterRegistry).embed("surgery");
+
+        StubEmbeddingModel restartedDelegate = new StubEmbeddingModel();
+        MeterRegistry restartedRegistry = new SimpleMeterRegistry();
+        float[] embedding = cachingModel(restartedDelegate, "model-a", directory, restartedRegistry).embed("surgery");
+
+        assertThat(embedding).isEqualTo(StubEmbeddingModel.embedding("surgery"));
+        assertThat(restartedDelegate.calls).isEmpty();
+        assertThat(restartedRegistry.get("cache.gets").tag("cache", CachingEmbeddingModel.FILES_CACHE_NAME)
+            .tag("result", "hit").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void embeddingsOfAnotherModelShouldNotBeReused() {
+        cachingModel(delegate, "model-a", directory, meterRegistry).embed("surgery");
+
+        StubEmbeddingModel otherDelegate = new StubEmbeddingModel();
+        cachingModel(otherDelegate, "model-b", directory, new SimpleMeterRegistry()).embed("surgery");
+
+        assertThat(otherDelegate.calls).containsExactly(List.of("surgery"));
+    }
+
+    private static CachingEmbeddingModel cachingModel(EmbeddingModel delegate, String modelId, Path directory,
+                                                      MeterRegistry meterRegistry) {
+        return new CachingEmbeddingModel(delegate, modelId, DataSize.ofMegabytes(1), 2, directory, meterRegistry);
+    }
+
+    private double cacheGets(String cache, String result) {
+        return meterRegistry.get("cache.gets").tag("cache", cache).tag("result", result).functionCounter().count();
+    }
+
+    /**
+     * Records the texts of each call and embeds a text by its length and first character.
+     */
+    private static class StubEmbeddingModel implements EmbeddingModel {
+
+        private final List<List<String>> calls = new ArrayList<>();
+
+        static float[] embedding(String text) {
+            return new float[] {text.length(), text.charAt(0)};
+        }
+
+        @Override
+        public EmbeddingResponse call(EmbeddingRequest request) {
+            calls.add(request.getInstructions());
+            List<Embedding> embeddings = new ArrayList<>();
+            for (String text : request.getInstructions()) {
+                embeddings.add(new Embedding(embedding(text), embeddings.size()));
+            }
+            return new EmbeddingResponse(embeddings);
+        }
+
+        @Override
+        public float[] embed(Document document) {
+            return embed(document.getContent());
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package org.springframework.samples.petclinic.genai.vectorstore;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.samples.petclinic.vectorsearch.HnswIndex;
+import org.springframework.samples.petclinic.vectorsearch.VectorSnapshot;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class HnswVectorStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private final HnswVectorStore store = new HnswVectorStore(new CoordinatesEmbeddingModel(), 8, 32, 4,
+        HnswIndex.Precision.FLOAT32);
+
+    @Test
+    void upsertShouldReplaceTheOldVector() {
+        store.add(List.of(document("vet-1", "Carter", Map.of(), 1, 0), document("vet-2", "Leary", Map.of(), 1, 0.2f)));
+        store.add(List.of(document("vet-1", "Carter, surgery", Map.of(), 0, 1)));
+
+        assertThat(store.ids()).containsExactlyInAnyOrder("vet-1", "vet-2");
+        assertThat(store.findById("vet-1")).get().extracting(Document::getContent).isEqualTo("Carter, surgery");
+        assertThat(store.similaritySearch(SearchRequest.query("1,0").withTopK(2)))
+            .extracting(Document::getId, Document::getContent)
+            .containsExactly(tuple("vet-2", "Leary"), tuple("vet-1", "Carter, surgery"));
+        assertThat(store.similaritySearch(SearchRequest.query("0,1").withTopK(1)))
+            .extracting(Document::getId).containsExactly("vet-1");
+    }
+
+    @Test
+    void deletedDocumentsShouldNeverBeReturned() {
+        store.add(List.of(document("vet-1", "Carter", Map.of(), 1, 0), document("vet-2", "Leary", Map.of(), 1, 0.2f),
+            document("vet-3", "Douglas", Map.of(), 0.2f, 1)));
+
+        assertThat(store.delete(List.of("vet-1"))).contains(true);
+        assertThat(store.delete(List.of("vet-1"))).contains(false);
+
+        assertThat(store.findById("vet-1")).isEmpty();
+        assertThat(store.similaritySearch(SearchRequest.query("1,0").withTopK(3)))
+            .extracting(Document::getId).containsExactly("vet-2", "vet-3");
+    }
+
+    @Test
+    void restrictiveFilterShouldFallBackToAnExactSearch() {
+        // links too few for the graph to reach every node, so that only an exact search finds them all
+        HnswVectorStore sparse = new HnswVectorStore(new CoordinatesEmbeddingModel(), 2, 2, 4,
+            HnswIndex.Precision.FLOAT32);
+        Random random = new Random(7);
+        List<Document> documents = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            float[] embedding = new float[8];
+            for (int d = 0; d < embedding.length; d++) {
+                embedding[d] = random.nextFloat();
+            }
+            documents.add(document("vet-" + i, "Vet " + i, Map.of("vetId", i), embedding));
+        }
+        sparse.add(documents);
+        List<Integer> vetIds = IntStream.range(0, 20).map(i -> 10 * i).boxed().toList();
+        Filter.Expression filter = new Filter.Expression(Filter.ExpressionType.IN, new Filter.Key("vetId"),
+            new Filter.Value(vetIds));
+
+        List<Document> results = sparse.similaritySearch(SearchRequest.query("1,1,1,1,1,1,1,1").withTopK(vetIds.size())
+            .withFilterExpression(filter));
+
+        assertThat(results).extracting(document -> document.getMetadata().get("vetId"))
+            .containsExactlyInAnyOrderElementsOf(vetIds);
+        assertThat(results).extracting(document -> (Float) document.getMetadata().get("distance")).isSorted();
+    }
+
+    @Test
+    void bundledSnapshotShouldServeTheDocumentsOfTheBundledJson() throws IOException {
+        ClassPathResource bundled = new ClassPathResource("vectorstore.bin");
+        VectorSnapshot snapshot = VectorSnapshot.open(bundled.getFile().toPath());
+        HnswVectorStore fromJson = new HnswVectorStore(new CoordinatesEmbeddingModel(), 8, 32, 4,
+            HnswIndex.Precision.FLOAT32);
+        fromJson.load(new ClassPathResource("vectorstore.json"));
+
+        store.loadSnapshot(bundled);
+        // as from within a jar, which cannot be mapped
+        HnswVectorStore copied = new HnswVectorStore(new CoordinatesEmbeddingModel(), 8, 32, 4,
+            HnswIndex.Precision.FLOAT32);
+        copied.loadSnapshot(new ByteArrayResource(bundled.getContentAsByteArray()));
+
+        assertThat(store.ids()).isNotEmpty().isEqualTo(fromJson.ids()).isEqualTo(copied.ids());
+        String id = snapshot.id(0);
+        assertThat(store.findById(id)).get().usingRecursiveComparison().isEqualTo(fromJson.findById(id).get());
+        String query = coordinates(snapshot.vector(0));
+        assertThat(store.similaritySearch(SearchRequest.query(query).withTopK(1)))
+            .extracting(Document::getId).containsExactly(id);
+        assertThat(copied.similaritySearch(SearchRequest.query(query).withTopK(1)))
+            .extracting(Document::getId).containsExactly(id);
+    }
+
+    @Test
+    void emptySnapshotShouldLeaveTheDimensionsToTheFirstDocument() throws IOException {
+        Path file = directory.resolve("vectorstore.bin");
+        store.saveSnapshot(file);
+
+        HnswVectorStore restarted = new HnswVectorStore(new CoordinatesEmbeddingModel(), 8, 32, 4,
+            HnswIndex.Precision.FLOAT32);
+        restarted.loadSnapshot(new FileSystemResource(file));
+        restarted.add(List.of(document("vet-1", "Carter", Map.of(), 1, 0), document("vet-2", "Leary", Map.of(), 0, 1)));
+
+        assertThat(restarted.similaritySearch(SearchRequest.query("0,1").withTopK(1)))
+            .extracting(Document::getId).containsExactly("vet-2");
+    }
+
+    private static String coordinates(float[] vector) {
+        StringBuilder coordinates = new StringBuilder();
+        for (float value : vector) {
+            coordinates.append(coordinates.isEmpty() ? "" : ",").append(value);
+        }
+        return coordinates.toString();
+    }
+
+    private static Document document(String id, String content, Map<String, Object> metadata, float... embedding) {
+        Document document = new Document(id, content, metadata);
+        document.setEmbedding(embedding);
+        return document;
+    }
+
+    /**
+     * Embeds a text of comma-separated coordinates, such as {@code "1,0"}, as those coordinates.
+     */
+    private static class CoordinatesEmbeddingModel implements EmbeddingModel {
+
+        @Override
+        public EmbeddingResponse call(EmbeddingRequest request) {
+            List<Embedding> embeddings = new ArrayList<>();
+            for (String text : request.getInstructions()) {
+                String[] coordinates = text.split(",");
+                float[] embedding = new float[coordinates.length];
+                for (int i = 0; i < coordinates.length; i++) {
+                    embedding[i] = Float.parseFloat(coordinates[i]);
+                }
+                embeddings.add(new Embedding(embedding, embeddings.size()));
+            }
+            return new EmbeddingResponse(embeddings);
+        }
+
+        @Override
+        public float[] embed(Document document) {
+            return embed(document.getContent());
+        }
+    }
+}
@@ -0,0 +1,566 @@
+package org.springframework.samples.petclinic.vectorsearch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+
+/**
+ * Approximate nearest neighbour index over primitive {@code float[]} vectors, after the Hierarchical Navigable Small
+ * World graphs of Malkov and Yashunin. Vectors are normalized when added, so the score of a match is its cosine
+ * similarity with the query.
+ * <ul>
+ *   <li>{@code m}: links kept per node on the upper layers, twice as many on the bottom one. More links cost memory
+ *   and insertion time and give a better recall.</li>
+ *   <li>{@code efConstruction}: neighbours considered when a node is linked into the graph.</li>
+ *   <li>{@code ef} of {@link #search}: neighbours considered by a search, the recall/latency trade-off.</li>
+ *   <li>{@link Precision}: whether vectors are scored in float32 or quantized to int8, optionally re-ranked.</li>
+ * </ul>
+ * Deleted nodes are only marked: they keep routing searches through the graph but are never returned.
+ * <p>
+ * An index created on a {@link VectorSnapshot} reads the vectors of the snapshot from its mapping rather than copying
+ * them to the heap; nodes added afterwards are numbered from the size of the snapshot.
+ * <p>
+ * Nodes are numbered from 0 in insertion order. Searches run concurrently, additions and deletions one at a time.
+ * The class only depends on the JDK, so that the benchmarks can compare it with an exhaustive scan.
+ */
+public class HnswIndex {
+
+    /** candidates of an exhaustive search re-ranked per match returned */
+    private static final int RERANKED_PER_MATCH = 4;
+
+    private final int dimensions;
+    private final int m;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final Random random = new Random(42);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final VectorSnapshot snapshot;
+    private final int snapshotSize;
+    private final Precision precision;
+    /** the quantized vectors of all the nodes, null in {@link Precision#FLOAT32} */
+    private final Int8Vectors int8;
+
+    /** the vectors of the nodes added to the index, null for the nodes of the snapshot and in {@link Precision#INT8} */
+    private float[][] vectors;
+    /** links[node][level] holds the number of links of the node on that level, then the linked nodes */
+    private int[][][] links;
+    private final BitSet deleted = new BitSet();
+    private int nodes;
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    public HnswIndex(int dimensions, int m, int efConstruction) {
+        this(dimensions, m, efConstruction, Precision.FLOAT32);
+    }
+
+    public HnswIndex(int dimensions, int m, int efConstruction, Precision precision) {
+        this(dimensions, m, efConstruction, precision, null);
+    }
+
+    /**
+     * Links every vector of the snapshot into a new graph.
+     */
+    public HnswIndex(VectorSnapshot snapshot, int m, int efConstruction, Precision precision) {
+        this(snapshot.dimensions(), m, efConstruction, precision, snapshot);
+        for (int node = 0; node < snapshotSize; node++) {
+            float[] vector = snapshot.vector(node);
+            if (int8 != null) {
+                int8.set(node, vector);
+            }
+            insert(node, vector);
+        }
+    }
+
+    private HnswIndex(int dimensions, int m, int efConstruction, Precision precision, VectorSnapshot snapshot) {
+        if (dimensions < 1 || m < 2 || efConstruction < 1) {
+            throw new IllegalArgumentException("dimensions must be positive, m at least 2 and efConstruction positive");
+        }
+        this.dimensions = dimensions;
+        this.m = m;
+        this.efConstruction = Math.max(efConstruction, m);
+        this.levelMultiplier = 1 / Math.log(m);
+        this.snapshot = snapshot;
+        this.snapshotSize = snapshot == null ? 0 : snapshot.size();
+        this.precision = precision;
+        this.int8 = precision == Precision.FLOAT32 ? null : new Int8Vectors(snapshotSize + 64);
+        this.vectors = new float[snapshotSize + 64][];
+        this.links = new int[snapshotSize + 64][][];
+    }
+
+    public int dimensions() {
+        return dimensions;
+    }
+
+    /**
+     * @return the number of nodes not deleted
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return nodes - deleted.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of the new node
+     */
+    public int add(float[] vector) {
+        float[] normalized = normalize(vector);
+        lock.writeLock().lock();
+        try {
+            int node = nodes;
+            if (node == vectors.length) {
+                vectors = Arrays.copyOf(vectors, node * 2);
+                links = Arrays.copyOf(links, node * 2);
+            }
+            if (int8 != null) {
+                int8.set(node, normalized);
+            }
+            vectors[node] = precision == Precision.INT8 ? null : normalized;
+            insert(node, normalized);
+            return node;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void insert(int node, float[] vector) {
+        int level = randomLevel();
+        links[node] = new int[level + 1][];
+        for (int l = 0; l <= level; l++) {
+            links[node][l] = new int[maxLinks(l) + 1];
+        }
+        nodes++;
+        if (entryPoint < 0) {
+            entryPoint = node;
+            maxLevel = level;
+            return;
+        }
+
+        Scorer scorer = scorer(vector);
+        int closest = entryPoint;
+        for (int l = maxLevel; l > level; l--) {
+            closest = greedySearch(scorer, closest, l);
+        }
+        for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+            long[] candidates = searchLayer(scorer, closest, efConstruction, l, null).drainDescending();
+            int[] neighbours = selectNeighbours(candidates, maxLinks(l));
+            for (int neighbour : neighbours) {
+                link(node, neighbour, l);
+                link(neighbour, node, l);
+            }
+            closest = node(candidates[0]);
+        }
+        if (level > maxLevel) {
+            entryPoint = node;
+            maxLevel = level;
+        }
+    }
+
+    public void delete(int node) {
+        lock.writeLock().lock();
+        try {
+            if (node >= 0 && node < nodes) {
+                deleted.set(node);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return the normalized vector of the node, dequantized in {@link Precision#INT8} unless it is in the snapshot
+     */
+    public float[] vector(int node) {
+        lock.readLock().lock();
+        try {
+            return vectorOf(node);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param ef     the number of neighbours to consider, at least {@code k}, which are all re-ranked in
+     *               {@link Precision#INT8_RERANKED}
+     * @param filter the nodes that may be returned, or {@code null} for all of them
+     * @return up to {@code k} nodes, the most similar first
+     */
+    public List<Match> search(float[] query, int k, int ef, IntPredicate filter) {
+        float[] normalized = normalize(query);
+        lock.readLock().lock();
+        try {
+            if (entryPoint < 0) {
+                return List.of();
+            }
+            Scorer scorer = scorer(normalized);
+            int closest = entryPoint;
+            for (int l = maxLevel; l > 0; l--) {
+                closest = greedySearch(scorer, closest, l);
+            }
+            IntPredicate accepted = filter == null ? node -> !deleted.get(node)
+                : node -> !deleted.get(node) && filter.test(node);
+            NodeHeap results = searchLayer(scorer, closest, Math.max(ef, k), 0, accepted);
+            return precision == Precision.INT8_RERANKED ? rerank(normalized, results, k) : matches(results, k);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Scores every node at the precision of the index, for filters that the graph cannot serve.
+     */
+    public List<Match> exactSearch(float[] query, int k, IntPredicate filter) {
+        float[] normalized = normalize(query);
+        lock.readLock().lock();
+        try {
+            Scorer scorer = scorer(normalized);
+            int candidates = precision == Precision.INT8_RERANKED ? RERANKED_PER_MATCH * k : k;
+            NodeHeap results = new NodeHeap(candidates + 1, false);
+            for (int node = 0; node < nodes; node++) {
+                if (deleted.get(node) || (filter != null && !filter.test(node))) {
+                    continue;
+                }
+                results.push(encode(scorer.score(node), node));
+                if (results.size() > candidates) {
+                    results.pop();
+                }
+            }
+            return precision == Precision.INT8_RERANKED ? rerank(normalized, results, k) : matches(results, k);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int maxLinks(int level) {
+        return level == 0 ? 2 * m : m;
+    }
+
+    private int randomLevel() {
+        return (int) (-Math.log(1 - random.nextDouble()) * levelMultiplier);
+    }
+
+    private int greedySearch(Scorer scorer, int entry, int level) {
+        int closest = entry;
+        float best = scorer.score(entry);
+        for (boolean moved = true; moved; ) {
+            moved = false;
+            int[] nodeLinks = links[closest][level];
+            for (int i = 1; i <= nodeLinks[0]; i++) {
+                float score = scorer.score(nodeLinks[i]);
+                if (score > best) {
+                    best = score;
+                    closest = nodeLinks[i];
+                    moved = true;
+                }
+            }
+        }
+        return closest;
+    }
+
+    /**
+     * Best-first search of one layer. Nodes refused by {@code accepted} are still explored, so that a filter does not
+     * cut the graph, but only the accepted ones are kept.
+     *
+     * @return up to {@code ef} accepted nodes, the least similar on top
+     */
+    private NodeHeap searchLayer(Scorer scorer, int entry, int ef, int level, IntPredicate accepted) {
+        BitSet visited = new BitSet(nodes);
+        NodeHeap candidates = new NodeHeap(ef, true);
+        NodeHeap results = new NodeHeap(ef + 1, false);
+        long start = encode(scorer.score(entry), entry);
+        visited.set(entry);
+        candidates.push(start);
+        if (accepted == null || accepted.test(entry)) {
+            results.push(start);
+        }
+        while (candidates.size() > 0) {
+            long candidate = candidates.pop();
+            if (results.size() >= ef && score(candidate) < score(results.peek())) {
+                break;
+            }
+            int[] nodeLinks = links[node(candidate)][level];
+            for (int i = 1; i <= nodeLinks[0]; i++) {
+                int neighbour = nodeLinks[i];
+                if (visited.get(neighbour)) {
+                    continue;
+                }
+                visited.set(neighbour);
+                float score = scorer.score(neighbour);
+                if (results.size() < ef || score > score(results.peek())) {
+                    long encoded = encode(score, neighbour);
+                    candidates.push(encoded);
+                    if (accepted == null || accepted.test(neighbour)) {
+                        results.push(encoded);
+                        if (results.size() > ef) {
+                            results.pop();
+                        }
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Keeps the candidates closer to the node than to any neighbour already selected, which links the node to
+     * several directions instead of a single cluster.
+     *
+     * @param candidates the candidates, the most similar first
+     */
+    private int[] selectNeighbours(long[] candidates, int max) {
+        int[] selected = new int[Math.min(max, candidates.length)];
+        int count = 0;
+        for (int i = 0; i < candidates.length && count < selected.length; i++) {
+            Scorer candidate = scorer(node(candidates[i]));
+            float score = score(candidates[i]);
+            boolean diverse = true;
+            for (int j = 0; j < count && diverse; j++) {
+                diverse = candidate.score(selected[j]) <= score;
+            }
+            if (diverse) {
+                selected[count++] = node(candidates[i]);
+            }
+        }
+        return Arrays.copyOf(selected, count);
+    }
+
+    private void link(int from, int to, int level) {
+        int[] nodeLinks = links[from][level];
+        int count = nodeLinks[0];
+        if (count < nodeLinks.length - 1) {
+            nodeLinks[++count] = to;
+            nodeLinks[0] = count;
+            return;
+        }
+        Scorer scorer = scorer(from);
+        NodeHeap candidates = new NodeHeap(count + 1, false);
+        candidates.push(encode(scorer.score(to), to));
+        for (int i = 1; i <= count; i++) {
+            candidates.push(encode(scorer.score(nodeLinks[i]), nodeLinks[i]));
+        }
+        int[] kept = selectNeighbours(candidates.drainDescending(), count);
+        nodeLinks[0] = kept.length;
+        System.arraycopy(kept, 0, nodeLinks, 1, kept.length);
+    }
+
+    /**
+     * Scores the nodes against a normalized vector, at the precision of the graph.
+     */
+    private Scorer scorer(float[] vector) {
+        if (int8 == null) {
+            return node -> fullScore(vector, node);
+        }
+        Int8Vectors.Quantized quantized = Int8Vectors.quantize(vector);
+        return node -> int8.dot(quantized, node);
+    }
+
+    private Scorer scorer(int node) {
+        if (int8 == null) {
+            float[] vector = vectorOf(node);
+            return other -> fullScore(vector, other);
+        }
+        Int8Vectors.Quantized quantized = int8.get(node);
+        return other -> int8.dot(quantized, other);
+    }
+
+    /**
+     * Only for {@link Precision#FLOAT32} and {@link Precision#INT8_RERANKED}, which keep the float32 vectors.
+     */
+    private float fullScore(float[] vector, int node) {
+        return node < snapshotSize ? snapshot.dot(vector, node) : dot(vector, vectors[node]);
+    }
+
+    private float[] vectorOf(int node) {
+        if (node < snapshotSize) {
+            return snapshot.vector(node);
+        }
+        return vectors[node] != null ? vectors[node] : int8.dequantize(node);
+    }
+
+    private List<Match> rerank(float[] query, NodeHeap candidates, int k) {
+        NodeHeap results = new NodeHeap(k + 1, false);
+        for (long candidate : candidates.drainDescending()) {
+            results.push(encode(fullScore(query, node(candidate)), node(candidate)));
+            if (results.size() > k) {
+                results.pop();
+            }
+        }
+        return matches(results, k);
+    }
+
+    private float[] normalize(float[] vector) {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException(
+                "Expected a vector of " + dimensions + " dimensions but got " + vector.length);
+        }
+        float norm = (float) Math.sqrt(dot(vector, vector));
+        float[] normalized = new float[vector.length];
+        for (int i = 0; i < vector.length; i++) {
+            normalized[i] = norm == 0 ? 0 : vector[i] / norm;
+        }
+        return normalized;
+    }
+
+    /**
+     * Four independent sums, as a single one makes each addition wait for the previous one.
+     */
+    public static float dot(float[] a, float[] b) {
+        float s0 = 0;
+        float s1 = 0;
+        float s2 = 0;
+        float s3 = 0;
+        int i = 0;
+        for (int upper = a.length & ~3; i < upper; i += 4) {
+            s0 += a[i] * b[i];
+            s1 += a[i + 1] * b[i + 1];
+            s2 += a[i + 2] * b[i + 2];
+            s3 += a[i + 3] * b[i + 3];
+        }
+        for (; i < a.length; i++) {
+            s0 += a[i] * b[i];
+        }
+        return s0 + s1 + s2 + s3;
+    }
+
+    private static List<Match> matches(NodeHeap results, int k) {
+        while (results.size() > k) {
+            results.pop();
+        }
+        List<Match> matches = new ArrayList<>(results.size());
+        for (long result : results.drainDescending()) {
+            matches.add(new Match(node(result), score(result)));
+        }
+        return matches;
+    }
+
+    /**
+     * Packs a score and a node into a {@code long} that sorts like the score, so that the heaps of a search hold
+     * primitives.
+     */
+    static long encode(float score, int node) {
+        int bits = Float.floatToIntBits(score);
+        return ((long) (bits ^ ((bits >> 31) & 0x7fffffff)) << 32) | (node & 0xffffffffL);
+    }
+
+    static float score(long encoded) {
+        int bits = (int) (encoded >> 32);
+        return Float.intBitsToFloat(bits ^ ((bits >> 31) & 0x7fffffff));
+    }
+
+    static int node(long encoded) {
+        return (int) encoded;
+    }
+
+    /**
+     * @param score the cosine similarity of the node with the query
+     */
+    public record Match(int node, float score) {
+    }
+
+    /**
+     * How the vectors are scored, when the graph is built as when it is searched.
+     */
+    public enum Precision {
+
+        FLOAT32,
+
+        /**
+         * Scores quantized to int8 and the float32 vectors of added nodes dropped, for a quarter of the memory.
+         */
+        INT8,
+
+        /**
+         * Graph walked with int8 scores, then its candidates re-scored in float32 from the vectors kept on the heap or
+         * in the snapshot.
+         */
+        INT8_RERANKED
+    }
+
+    @FunctionalInterface
+    private interface Scorer {
+
+        float score(int node);
+    }
+
+    /**
+     * Binary heap of encoded nodes, with the most similar on top when {@code max}, the least similar otherwise.
+     */
+    private static final class NodeHeap {
+
+        private final boolean max;
+        private long[] heap;
+        private int size;
+
+        NodeHeap(int capacity, boolean max) {
+            this.heap = new long[Math.max(capacity, 4)];
+            this.max = max;
+        }
+
+        int size() {
+            return size;
+        }
+
+        long peek() {
+            return heap[0];
+        }
+
+        void push(long value) {
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!above(value, heap[parent])) {
+                    break;
+                }
+                heap[i] = heap[parent];
+                i = parent;
+            }
+            heap[i] = value;
+        }
+
+        long pop() {
+            long top = heap[0];
+            long last = heap[--size];
+            int i = 0;
+            for (int child = 1; child < size; child = 2 * i + 1) {
+                if (child + 1 < size && above(heap[child + 1], heap[child])) {
+                    child++;
+                }
+                if (!above(heap[child], last)) {
+                    break;
+                }
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = last;
+            return top;
+        }
+
+        /**
+         * Empties the heap.
+         *
+         * @return its values, the most similar first
+         */
+        long[] drainDescending() {
+            long[] values = new long[size];
+            for (int i = max ? 0 : size - 1; size > 0; i += max ? 1 : -1) {
+                values[i] = pop();
+            }
+            return values;
+        }
+
+        private boolean above(long a, long b) {
+            return max ? a > b : a < b;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package org.springframework.samples.petclinic.vectorsearch;
+
+import java.util.Arrays;
+
+/**
+ * Vectors quantized to a signed byte per dimension, scaled so that the largest component of each vector maps to 127:
+ * a quarter of the memory of float32, for a dot product within about 1% of the exact one on normalized embeddings.
+ */
+final class Int8Vectors {
+
+    /** whether the JVM runs with {@code --add-modules jdk.incubator.vector}, see {@link Int8VectorApi} */
+    static final boolean VECTOR_API = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+        && Int8VectorApi.supported();
+
+    private byte[][] codes;
+    private float[] scales;
+
+    Int8Vectors(int capacity) {
+        codes = new byte[capacity][];
+        scales = new float[capacity];
+    }
+
+    static Quantized quantize(float[] vector) {
+        float max = 0;
+        for (float value : vector) {
+            max = Math.max(max, Math.abs(value));
+        }
+        float scale = max / 127;
+        byte[] codes = new byte[vector.length];
+        for (int i = 0; i < vector.length && scale > 0; i++) {
+            codes[i] = (byte) Math.round(vector[i] / scale);
+        }
+        return new Quantized(codes, scale);
+    }
+
+    void set(int node, float[] vector) {
+        if (node >= codes.length) {
+            codes = Arrays.copyOf(codes, Math.max(node + 1, codes.length * 2));
+            scales = Arrays.copyOf(scales, codes.length);
+        }
+        Quantized quantized = quantize(vector);
+        codes[node] = quantized.codes();
+        scales[node] = quantized.scale();
+    }
+
+    Quantized get(int node) {
+        return new Quantized(codes[node], scales[node]);
+    }
+
+    /**
+     * Sums the products of the codes in an int, converted to float once per vector.
+     */
+    float dot(Quantized query, int node) {
+        return (VECTOR_API ? Int8VectorApi.dot(query.codes(), codes[node]) : dot(query.codes(), codes[node]))
+            * query.scale() * scales[node];
+    }
+
+    private static int dot(byte[] a, byte[] b) {
+        int sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    float[] dequantize(int node) {
+        float[] vector = new float[codes[node].length];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = codes[node][i] * scales[node];
+        }
+        return vector;
+    }
+
+    record Quantized(byte[] codes, float scale) {
+    }
+}
@@ -0,0 +1,250 @@
+package org.springframework.samples.petclinic.vectorsearch;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary snapshot of a vector store, memory-mapped instead of parsed: opening one only reads its header, the
+ * embeddings and documents are paged in by the OS as they are used and never copied to the heap.
+ * <p>
+ * Layout, little-endian:
+ * <ol>
+ *   <li>header of {@value #HEADER_SIZE} bytes: magic {@code PCVS}, version, dimensions, vector count, offset of the
+ *   matrix, offset of the documents</li>
+ *   <li>matrix: the normalized embeddings as float32, one row per vector</li>
+ *   <li>document offsets: an int64 per vector, the offset of its document in the file</li>
+ *   <li>documents: id, content and metadata as a JSON object, each as an int32 length then UTF-8 bytes</li>
+ * </ol>
+ * The matrix is mapped in chunks of up to 1 GB, so it may exceed the 2 GB of a single mapping; the documents may not.
+ */
+public final class VectorSnapshot {
+
+    static final int HEADER_SIZE = 64;
+    private static final int MAGIC = 0x53564350; // "PCVS" read as a little-endian int
+    private static final int VERSION = 1;
+    private static final int MAX_CHUNK_BYTES = 1 << 30;
+
+    private final int dimensions;
+    private final int size;
+    private final int vectorsPerChunk;
+    private final FloatBuffer[] matrix;
+    private final LongBuffer documentOffsets;
+    private final ByteBuffer documents;
+    private final long documentsOffset;
+
+    private VectorSnapshot(FileChannel channel, int maxChunkBytes) throws IOException {
+        ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+            throw new IOException("Not a version " + VERSION + " vector snapshot");
+        }
+        dimensions = header.getInt();
+        size = header.getInt();
+        long matrixOffset = header.getLong();
+        documentsOffset = header.getLong();
+
+        long vectorBytes = (long) dimensions * Float.BYTES;
+        vectorsPerChunk = (int) Math.max(1, maxChunkBytes / vectorBytes);
+        matrix = new FloatBuffer[(size + vectorsPerChunk - 1) / vectorsPerChunk];
+        for (int chunk = 0; chunk < matrix.length; chunk++) {
+            int vectors = Math.min(vectorsPerChunk, size - chunk * vectorsPerChunk);
+            matrix[chunk] = channel.map(FileChannel.MapMode.READ_ONLY,
+                    matrixOffset + chunk * vectorsPerChunk * vectorBytes, vectors * vectorBytes)
+                .order(ByteOrder.LITTLE_ENDIAN)
+                .asFloatBuffer();
+        }
+        long offsetsOffset = matrixOffset + size * vectorBytes;
+        documentOffsets = channel.map(FileChannel.MapMode.READ_ONLY, offsetsOffset, (long) size * Long.BYTES)
+            .order(ByteOrder.LITTLE_ENDIAN)
+            .asLongBuffer();
+        long documentsSize = channel.size() - documentsOffset;
+        if (documentsSize > Integer.MAX_VALUE) {
+            throw new IOException("The documents of the snapshot exceed 2 GB");
+        }
+        documents = channel.map(FileChannel.MapMode.READ_ONLY, documentsOffset, documentsSize)
+            .order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Maps a snapshot written by a {@link Writer}. The mapping outlives the file channel and is released once the
+     * snapshot is garbage collected.
+     */
+    public static VectorSnapshot open(Path file) throws IOException {
+        return open(file, MAX_CHUNK_BYTES);
+    }
+
+    static VectorSnapshot open(Path file, int maxChunkBytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new VectorSnapshot(channel, maxChunkBytes);
+        }
+    }
+
+    public static Writer writer(Path file, int dimensions, int size) throws IOException {
+        return new Writer(file, dimensions, size);
+    }
+
+    public int dimensions() {
+        return dimensions;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the normalized embedding of the vector, copied to the heap
+     */
+    public float[] vector(int vector) {
+        float[] copy = new float[dimensions];
+        matrix[vector / vectorsPerChunk].get((vector % vectorsPerChunk) * dimensions, copy);
+        return copy;
+    }
+
+    public float dot(float[] query, int vector) {
+        FloatBuffer chunk = matrix[vector / vectorsPerChunk];
+        int base = (vector % vectorsPerChunk) * dimensions;
+        float s0 = 0;
+        float s1 = 0;
+        float s2 = 0;
+        float s3 = 0;
+        int i = 0;
+        for (int upper = dimensions & ~3; i < upper; i += 4) {
+            s0 += query[i] * chunk.get(base + i);
+            s1 += query[i + 1] * chunk.get(base + i + 1);
+            s2 += query[i + 2] * chunk.get(base + i + 2);
+            s3 += query[i + 3] * chunk.get(base + i + 3);
+        }
+        for (; i < dimensions; i++) {
+            s0 += query[i] * chunk.get(base + i);
+        }
+        return s0 + s1 + s2 + s3;
+    }
+
+    public String id(int vector) {
+        return field(vector, 0);
+    }
+
+    public String content(int vector) {
+        return field(vector, 1);
+    }
+
+    /**
+     * @return the metadata of the document as a JSON object
+     */
+    public String metadata(int vector) {
+        return field(vector, 2);
+    }
+
+    private String field(int vector, int field) {
+        int position = (int) (documentOffsets.get(vector) - documentsOffset);
+        for (int i = 0; i < field; i++) {
+            position += Integer.BYTES + documents.getInt(position);
+        }
+        byte[] bytes = new byte[documents.getInt(position)];
+        documents.get(position + Integer.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes a snapshot of a known number of vectors, one document at a time.
+     */
+    public static final class Writer implements Closeable {
+
+        private final FileChannel channel;
+        private final int dimensions;
+        private final int size;
+        private final long matrixOffset = HEADER_SIZE;
+        private final long offsetsOffset;
+        private final long documentsOffset;
+        private final ByteBuffer vector;
+        private final ByteBuffer offsets;
+        private long position;
+        private int written;
+
+        private Writer(Path file, int dimensions, int size) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+            this.dimensions = dimensions;
+            this.size = size;
+            this.offsetsOffset = matrixOffset + (long) size * dimensions * Float.BYTES;
+            this.documentsOffset = offsetsOffset + (long) size * Long.BYTES;
+            this.vector = ByteBuffer.allocate(dimensions * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            this.offsets = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            this.position = documentsOffset;
+        }
+
+        /**
+         * @param metadata the metadata of the document as a JSON object
+         * @param embedding the embedding of the document, normalized by the writer
+         */
+        public void write(String id, String content, String metadata, float[] embedding) throws IOException {
+            if (written == size) {
+                throw new IllegalStateException("The snapshot is already full with " + size + " vectors");
+            }
+            if (embedding.length != dimensions) {
+                throw new IllegalArgumentException(
+                    "Expected a vector of " + dimensions + " dimensions but got " + embedding.length);
+            }
+            float norm = (float) Math.sqrt(HnswIndex.dot(embedding, embedding));
+            vector.clear();
+            for (float value : embedding) {
+                vector.putFloat(norm == 0 ? 0 : value / norm);
+            }
+            write(vector.flip(), matrixOffset + (long) written * dimensions * Float.BYTES);
+            offsets.clear().putLong(position);
+            write(offsets.flip(), offsetsOffset + (long) written * Long.BYTES);
+
+            byte[][] fields = {bytes(id), bytes(content), bytes(metadata)};
+            int length = 0;
+            for (byte[] field : fields) {
+                length += Integer.BYTES + field.length;
+            }
+            ByteBuffer document = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+            for (byte[] field : fields) {
+                document.putInt(field.length).put(field);
+            }
+            write(document.flip(), position);
+            position += length;
+            written++;
+        }
+
+        /**
+         * Writes the header, which makes the snapshot readable.
+         */
+        @Override
+        public void close() throws IOException {
+            try {
+                if (written != size) {
+                    throw new IllegalStateException("Only " + written + " of the " + size + " vectors were written");
+                }
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN)
+                    .putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putInt(dimensions)
+                    .putInt(size)
+                    .putLong(matrixOffset)
+                    .putLong(documentsOffset);
+                write(header.clear(), 0);
+            } finally {
+                channel.close();
+            }
+        }
+
+        private void write(ByteBuffer buffer, long at) throws IOException {
+            while (buffer.hasRemaining()) {
+                at += channel.write(buffer, at);
+            }
+        }
+
+        private static byte[] bytes(String value) {
+            return value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package org.springframework.samples.petclinic.vectorsearch;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Converts a JSON file of {@code SimpleVectorStore}, such as the {@code vectorstore.json} of genai-service, to a
+ * {@link VectorSnapshot}:
+ * <pre>
+ * ../mvnw compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt
+ * java -cp target/classes:$(cat target/classpath.txt) \
+ *     org.springframework.samples.petclinic.vectorsearch.VectorSnapshotConverter \
+ *     ../spring-petclinic-genai-service/src/main/resources/vectorstore.json \
+ *     ../spring-petclinic-genai-service/src/main/resources/vectorstore.bin
+ * </pre>
+ */
+public final class VectorSnapshotConverter {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private VectorSnapshotConverter() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: VectorSnapshotConverter <vectorstore.json> <vectorstore.bin>");
+            System.exit(1);
+        }
+        try (InputStream json = Files.newInputStream(Path.of(args[0]))) {
+            convert(json, Path.of(args[1]));
+        }
+    }
+
+    public static void convert(InputStream json, Path snapshot) throws IOException {
+        Map<String, JsonDocument> documents = read(json);
+        int dimensions = documents.isEmpty() ? 1 : documents.values().iterator().next().embedding().length;
+        try (VectorSnapshot.Writer writer = VectorSnapshot.writer(snapshot, dimensions, documents.size())) {
+            for (Map.Entry<String, JsonDocument> entry : documents.entrySet()) {
+                JsonDocument document = entry.getValue();
+                writer.write(entry.getKey(), document.content(), MAPPER.writeValueAsString(document.metadata()),
+                    document.embedding());
+            }
+        }
+    }
+
+    /**
+     * @return the documents by id, in the order of the file
+     */
+    public static Map<String, JsonDocument> read(InputStream json) throws IOException {
+        return MAPPER.readValue(json, new TypeReference<LinkedHashMap<String, JsonDocument>>() {});
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record JsonDocument(String id, String content, Map<String, Object> metadata, float[] embedding) {
+
+        @Override
+        public Map<String, Object> metadata() {
+            return metadata == null ? Map.of() : metadata;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package org.springframework.samples.petclinic.vectorsearch;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class HnswIndexTest {
+
+    private static final int DIMENSIONS = 32;
+    private static final int VECTORS = 2000;
+    private static final int QUERIES = 50;
+    private static final int K = 10;
+
+    private final Random random = new Random(7);
+    private float[][] vectors;
+
+    @BeforeEach
+    void setUp() {
+        vectors = new float[VECTORS][];
+        for (int i = 0; i < VECTORS; i++) {
+            vectors[i] = randomVector();
+        }
+    }
+
+    @Test
+    void searchShouldFindAlmostAllTheNeighboursOfAnExhaustiveScan() {
+        assertThat(recall(HnswIndex.Precision.FLOAT32)).isGreaterThanOrEqualTo(0.95);
+        assertThat(recall(HnswIndex.Precision.INT8_RERANKED)).isGreaterThanOrEqualTo(0.9);
+    }
+
+    @Test
+    void exactSearchShouldReturnTheNeighboursOfAnExhaustiveScan() {
+        HnswIndex index = index(HnswIndex.Precision.FLOAT32);
+        float[] query = randomVector();
+
+        assertThat(index.exactSearch(query, K, null)).extracting(HnswIndex.Match::node)
+            .containsExactlyElementsOf(exhaustiveScan(query, K));
+    }
+
+    @Test
+    void deletedNodesShouldNeverBeReturned() {
+        HnswIndex index = index(HnswIndex.Precision.FLOAT32);
+        Set<Integer> deleted = new HashSet<>();
+        for (int node = 0; node < VECTORS; node += 2) {
+            index.delete(node);
+            deleted.add(node);
+        }
+
+        assertThat(index.size()).isEqualTo(VECTORS / 2);
+        for (int q = 0; q < QUERIES; q++) {
+            // the vector of a deleted node is its own best match
+            float[] query = vectors[2 * q];
+            assertThat(index.search(query, K, 50, null)).hasSize(K)
+                .extracting(HnswIndex.Match::node).doesNotContainAnyElementsOf(deleted);
+            assertThat(index.exactSearch(query, K, null)).hasSize(K)
+                .extracting(HnswIndex.Match::node).doesNotContainAnyElementsOf(deleted);
+        }
+    }
+
+    @Test
+    void matchesShouldBeOrderedByScoreEvenWhenNegative() {
+        HnswIndex index = new HnswIndex(2, 4, 16);
+        index.add(new float[] {-1, 0});
+        index.add(new float[] {0.6f, 0.8f});
+        index.add(new float[] {-0.6f, 0.8f});
+        index.add(new float[] {0, 1});
+
+        List<HnswIndex.Match> matches = index.exactSearch(new float[] {1, 0}, 4, null);
+
+        assertThat(matches).extracting(HnswIndex.Match::node).containsExactly(1, 3, 2, 0);
+        assertThat(matches.get(2).score()).isCloseTo(-0.6f, within(1e-6f));
+        assertThat(index.search(new float[] {1, 0}, 4, 4, null)).containsExactlyElementsOf(matches);
+    }
+
+    @Test
+    void encodedScoresShouldSortLikeTheScores() {
+        float[] scores = {-1, -0.75f, -0.5f, -0.1f, -Float.MIN_VALUE, 0, Float.MIN_VALUE, 0.1f, 0.5f, 1};
+        for (int i = 0; i < scores.length; i++) {
+            long encoded = HnswIndex.encode(scores[i], i);
+            assertThat(HnswIndex.score(encoded)).isEqualTo(scores[i]);
+            assertThat(HnswIndex.node(encoded)).isEqualTo(i);
+            if (i > 0) {
+                assertThat(encoded).isGreaterThan(HnswIndex.encode(scores[i - 1], i - 1));
+            }
+        }
+        // the node only breaks ties
+        assertThat(HnswIndex.encode(-0.5f, 1_000_000)).isLessThan(HnswIndex.encode(-0.25f, 0));
+    }
+
+    /**
+     * @return the share of the top {@link #K} of an exhaustive scan found by {@link HnswIndex#search}
+     */
+    private double recall(HnswIndex.Precision precision) {
+        HnswIndex index = index(precision);
+        int found = 0;
+        for (int q = 0; q < QUERIES; q++) {
+            float[] query = randomVector();
+            List<Integer> expected = exhaustiveScan(query, K);
+            found += (int) index.search(query, K, 64, null).stream()
+                .filter(match -> expected.contains(match.node()))
+                .count();
+        }
+        return (double) found / (QUERIES * K);
+    }
+
+    private HnswIndex index(HnswIndex.Precision precision) {
+        HnswIndex index = new HnswIndex(DIMENSIONS, 16, 100, precision);
+        for (float[] vector : vectors) {
+            index.add(vector);
+        }
+        return index;
+    }
+
+    private List<Integer> exhaustiveScan(float[] query, int k) {
+        double queryNorm = Math.sqrt(HnswIndex.dot(query, query));
+        List<double[]> scored = new ArrayList<>();
+        for (int node = 0; node < VECTORS; node++) {
+            double norm = Math.sqrt(HnswIndex.dot(vectors[node], vectors[node]));
+            scored.add(new double[] {HnswIndex.dot(query, vectors[node]) / (queryNorm * norm), node});
+        }
+        return scored.stream()
+            .sorted(Comparator.comparingDouble((double[] s) -> s[0]).reversed())
+            .limit(k)
+            .map(s -> (int) s[1])
+            .toList();
+    }
+
+    private float[] randomVector() {
+        float[] vector = new float[DIMENSIONS];
+        IntStream.range(0, DIMENSIONS).forEach(i -> vector[i] = (float) random.nextGaussian());
+        return vector;
+    }
+}
@@ -0,0 +1,60 @@
+package org.springframework.samples.petclinic.vectorsearch;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class VectorSnapshotConverterTest {
+
+    // as written by SimpleVectorStore, with properties the converter ignores
+    private static final String JSON = """
+        {
+          "vet-2": {"id": "vet-2", "content": "{\\"id\\":2,\\"lastName\\":\\"Leary\\"}", "metadata": {"version": "b1"},
+                    "embedding": [0, 3, 4], "media": null},
+          "vet-1": {"id": "vet-1", "content": "{\\"id\\":1,\\"lastName\\":\\"Carter\\"}",
+                    "embedding": [2, 0, 0]}
+        }""";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldReadTheDocumentsInTheOrderOfTheFile() throws IOException {
+        Map<String, VectorSnapshotConverter.JsonDocument> documents = VectorSnapshotConverter.read(json());
+
+        assertThat(documents.keySet()).containsExactly("vet-2", "vet-1");
+        assertThat(documents.get("vet-2").metadata()).containsExactly(Map.entry("version", "b1"));
+        assertThat(documents.get("vet-1").metadata()).isEmpty();
+    }
+
+    @Test
+    void shouldConvertToASnapshotOfNormalizedEmbeddings() throws IOException {
+        Path file = directory.resolve("vectorstore.bin");
+
+        VectorSnapshotConverter.convert(json(), file);
+
+        VectorSnapshot snapshot = VectorSnapshot.open(file);
+        assertThat(snapshot.size()).isEqualTo(2);
+        assertThat(snapshot.dimensions()).isEqualTo(3);
+        assertThat(snapshot.id(0)).isEqualTo("vet-2");
+        assertThat(snapshot.content(0)).isEqualTo("{\"id\":2,\"lastName\":\"Leary\"}");
+        assertThat(snapshot.metadata(0)).isEqualTo("{\"version\":\"b1\"}");
+        assertThat(snapshot.vector(0)).containsExactly(new float[] {0, 0.6f, 0.8f}, within(1e-6f));
+        assertThat(snapshot.id(1)).isEqualTo("vet-1");
+        assertThat(snapshot.metadata(1)).isEqualTo("{}");
+        assertThat(snapshot.vector(1)).containsExactly(1, 0, 0);
+    }
+
+    private static InputStream json() {
+        return new ByteArrayInputStream(JSON.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,105 @@
+package org.springframework.samples.petclinic.vectorsearch;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.assertj.core.api.Assertions.assertThatIOException;
+import static org.assertj.core.api.Assertions.within;
+
+class VectorSnapshotTest {
+
+    private static final int VECTORS = 7;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldReadBackWhatWasWritten() throws IOException {
+        Path file = write(directory.resolve("vectors.bin"));
+
+        VectorSnapshot snapshot = VectorSnapshot.open(file);
+
+        assertSnapshot(snapshot);
+    }
+
+    @Test
+    void vectorsShouldBeReadAcrossChunks() throws IOException {
+        Path file = write(directory.resolve("vectors.bin"));
+
+        // two vectors of 3 float32 per chunk: chunks of 2, 2, 2 and 1 vectors
+        VectorSnapshot snapshot = VectorSnapshot.open(file, 2 * 3 * Float.BYTES);
+
+        assertSnapshot(snapshot);
+    }
+
+    @Test
+    void emptySnapshotShouldOpen() throws IOException {
+        Path file = directory.resolve("empty.bin");
+        VectorSnapshot.writer(file, 1, 0).close();
+
+        VectorSnapshot snapshot = VectorSnapshot.open(file);
+
+        assertThat(snapshot.size()).isZero();
+        assertThat(snapshot.dimensions()).isEqualTo(1);
+    }
+
+    @Test
+    void writerShouldRejectVectorsOfOtherDimensions() throws IOException {
+        try (VectorSnapshot.Writer writer = VectorSnapshot.writer(directory.resolve("vectors.bin"), 3, 1)) {
+            assertThatIllegalArgumentException().isThrownBy(() -> writer.write("vet-1", "", "{}", new float[2]));
+            writer.write("vet-1", "", "{}", new float[3]);
+        }
+    }
+
+    @Test
+    void incompleteSnapshotShouldNotBeReadable() throws IOException {
+        Path file = directory.resolve("vectors.bin");
+        VectorSnapshot.Writer writer = VectorSnapshot.writer(file, 3, 2);
+        writer.write("vet-1", "", "{}", new float[] {1, 0, 0});
+
+        assertThatIllegalStateException().isThrownBy(writer::close);
+        assertThatIOException().isThrownBy(() -> VectorSnapshot.open(file));
+    }
+
+    @Test
+    void shouldRejectAnotherFile() throws IOException {
+        Path file = Files.writeString(directory.resolve("vectorstore.json"), "{}".repeat(40), StandardCharsets.UTF_8);
+
+        assertThatIOException().isThrownBy(() -> VectorSnapshot.open(file))
+            .withMessageContaining("Not a version 1 vector snapshot");
+    }
+
+    /**
+     * Writes vector {@code i} as {@code (i + 1, 2, 0)}, with multi-byte characters in its fields.
+     */
+    private static Path write(Path file) throws IOException {
+        try (VectorSnapshot.Writer writer = VectorSnapshot.writer(file, 3, VECTORS)) {
+            for (int i = 0; i < VECTORS; i++) {
+                writer.write("vet-" + i, i == 3 ? null : "Dr. Müller " + "é".repeat(i),
+                    "{\"specialty\":\"chirurgie " + i + "\"}", new float[] {i + 1, 2, 0});
+            }
+        }
+        return file;
+    }
+
+    private static void assertSnapshot(VectorSnapshot snapshot) {
+        assertThat(snapshot.dimensions()).isEqualTo(3);
+        assertThat(snapshot.size()).isEqualTo(VECTORS);
+        for (int i = 0; i < VECTORS; i++) {
+            float norm = (float) Math.sqrt((i + 1) * (i + 1) + 4);
+            assertThat(snapshot.vector(i)).containsExactly(new float[] {(i + 1) / norm, 2 / norm, 0}, within(1e-6f));
+            assertThat(snapshot.dot(new float[] {1, 0, 0}, i)).isCloseTo((i + 1) / norm, within(1e-6f));
+            assertThat(snapshot.id(i)).isEqualTo("vet-" + i);
+            assertThat(snapshot.content(i)).isEqualTo(i == 3 ? "" : "Dr. Müller " + "é".repeat(i));
+            assertThat(snapshot.metadata(i)).isEqualTo("{\"specialty\":\"chirurgie " + i + "\"}");
+        }
+    }
+}
@@ -18,8 +18,6 @@ package org.springframework.samples.petclinic.vets.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.xml.bind.annotation.XmlElement;
-import org.springframework.beans.support.MutableSortDefinition;
-import org.springframework.beans.support.PropertyComparator;
 
 import java.util.*;
 
@@ -37,6 +35,9 @@ import java.util.*;
 @Table(name = "vets")
 public class Vet {
 
+    private static final Comparator<Specialty> BY_NAME =
+        Comparator.comparing(Specialty::getName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER));
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer id;
@@ -54,6 +55,12 @@ public class Vet {
         inverseJoinColumns = @JoinColumn(name = "specialty_id"))
     private Set<Specialty> specialties;
 
+    /**
+     * {@link #getSpecialties()} as last returned, reused as long as it holds the same number of specialties in name order.
+     */
+    @Transient
+    private List<Specialty> sortedSpecialties;
+
     protected Set<Specialty> getSpecialtiesInternal() {
         if (this.specialties == null) {
             this.specialties = new HashSet<>();
@@ -61,11 +68,30 @@ public class Vet {
         return this.specialties;
     }
 
+    /**
+     * @return the specialties sorted by name, ignoring case. The list is immutable and only rebuilt after a specialty
+     * was added or renamed out of order, so that vets cached and serialized concurrently share it.
+     */
     @XmlElement
     public List<Specialty> getSpecialties() {
-        List<Specialty> sortedSpecs = new ArrayList<>(getSpecialtiesInternal());
-        PropertyComparator.sort(sortedSpecs, new MutableSortDefinition("name", true, true));
-        return Collections.unmodifiableList(sortedSpecs);
+        Set<Specialty> specialties = getSpecialtiesInternal();
+        List<Specialty> sorted = this.sortedSpecialties;
+        if (sorted == null || sorted.size() != specialties.size() || !isSorted(sorted)) {
+            Specialty[] array = specialties.toArray(new Specialty[0]);
+            Arrays.sort(array, BY_NAME);
+            sorted = List.of(array);
+            this.sortedSpecialties = sorted;
+        }
+        return sorted;
+    }
+
+    private static boolean isSorted(List<Specialty> specialties) {
+        for (int i = 1; i < specialties.size(); i++) {
+            if (BY_NAME.compare(specialties.get(i - 1), specialties.get(i)) > 0) {
+                return false;
+            }
+        }
+        return true;
     }
 
     public int getNrOfSpecialties() {
@@ -74,6 +100,7 @@ public class Vet {
 
     public void addSpecialty(Specialty specialty) {
         getSpecialtiesInternal().add(specialty);
+        this.sortedSpecialties = null;
     }
 
     public Integer getId() {
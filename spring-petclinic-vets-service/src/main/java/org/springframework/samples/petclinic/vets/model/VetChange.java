@@ -0,0 +1,23 @@
+package org.springframework.samples.petclinic.vets.model;
+
+/**
+ * A vet created, updated or deleted, as published by the {@link VetChangeFeed}.
+ *
+ * @param sequence the position of the change in the feed
+ * @param version  a hash of the content of the vet, its last version when it was deleted
+ * @param vet      the vet as created or updated, {@code null} when it was deleted
+ */
+public record VetChange(
+    long sequence,
+    Integer vetId,
+    String version,
+    Type type,
+    Vet vet
+) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
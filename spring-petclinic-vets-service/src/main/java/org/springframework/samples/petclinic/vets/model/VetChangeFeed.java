@@ -0,0 +1,108 @@
+package org.springframework.samples.petclinic.vets.model;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Change feed of the vets, for the services that keep a copy of them, such as the vector store of genai-service,
+ * to only process the vets created, updated or deleted since they last asked.
+ * <p>
+ * Vets are only written to the database by its scripts, so changes are detected rather than recorded: whenever
+ * {@link VetRepository#findSnapshot()} returns another snapshot, the version of each vet, a hash of its content, is
+ * compared with the previous one. The feed is thus as fresh as the {@code vets} cache.
+ * <p>
+ * The last {@value #MAX_CHANGES} changes are kept in memory. A cursor from an older change, from another instance of
+ * the service or no cursor at all gets a reset: every vet listed as created.
+ */
+@Component
+public class VetChangeFeed {
+
+    static final int MAX_CHANGES = 1000;
+
+    private final VetRepository vetRepository;
+    /** identifies the changes of this instance in its cursors */
+    private final String epoch = UUID.randomUUID().toString();
+    private final Deque<VetChange> changes = new ArrayDeque<>();
+    private long sequence;
+    private String etag;
+    private List<Vet> vets = List.of();
+    private Map<Integer, String> versions = Map.of();
+
+    public VetChangeFeed(VetRepository vetRepository) {
+        this.vetRepository = vetRepository;
+    }
+
+    /**
+     * @param cursor the cursor of the last changes processed, or {@code null} to get all the vets
+     */
+    public synchronized VetChanges changesSince(String cursor) {
+        refresh();
+        long since = parse(cursor);
+        if (since < 0 || since > sequence || (!changes.isEmpty() && since < changes.getFirst().sequence() - 1)) {
+            List<VetChange> created = new ArrayList<>(vets.size());
+            for (Vet vet : vets) {
+                created.add(new VetChange(sequence, vet.getId(), versions.get(vet.getId()), VetChange.Type.CREATED, vet));
+            }
+            return new VetChanges(cursor(sequence), true, created);
+        }
+        List<VetChange> newer = changes.stream().filter(change -> change.sequence() > since).toList();
+        return new VetChanges(cursor(sequence), false, newer);
+    }
+
+    private void refresh() {
+        VetsSnapshot snapshot = vetRepository.findSnapshot();
+        if (snapshot.etag().equals(etag)) {
+            return;
+        }
+        Map<Integer, String> current = new HashMap<>();
+        for (Vet vet : snapshot.vets()) {
+            String version = VetsSnapshot.version(vet);
+            current.put(vet.getId(), version);
+            String previous = versions.get(vet.getId());
+            // the first snapshot is the baseline, its vets are only published by resets
+            if (etag != null && !version.equals(previous)) {
+                append(vet.getId(), version, previous == null ? VetChange.Type.CREATED : VetChange.Type.UPDATED, vet);
+            }
+        }
+        for (Map.Entry<Integer, String> previous : versions.entrySet()) {
+            if (!current.containsKey(previous.getKey())) {
+                append(previous.getKey(), previous.getValue(), VetChange.Type.DELETED, null);
+            }
+        }
+        etag = snapshot.etag();
+        vets = snapshot.vets();
+        versions = current;
+    }
+
+    private void append(Integer vetId, String version, VetChange.Type type, Vet vet) {
+        changes.addLast(new VetChange(++sequence, vetId, version, type, vet));
+        if (changes.size() > MAX_CHANGES) {
+            changes.removeFirst();
+        }
+    }
+
+    private String cursor(long sequence) {
+        return epoch + ':' + sequence;
+    }
+
+    /**
+     * @return the sequence of the cursor, or -1 if it was not issued by this instance
+     */
+    private long parse(String cursor) {
+        if (cursor == null || !cursor.startsWith(epoch + ':')) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(cursor.substring(epoch.length() + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
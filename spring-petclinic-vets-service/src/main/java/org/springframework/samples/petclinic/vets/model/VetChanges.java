@@ -0,0 +1,16 @@
+package org.springframework.samples.petclinic.vets.model;
+
+import java.util.List;
+
+/**
+ * The changes of the vets since a cursor of the {@link VetChangeFeed}.
+ *
+ * @param cursor  the cursor to ask for the next changes
+ * @param reset   whether the changes list every vet as created instead, the vets they do not list being deleted
+ */
+public record VetChanges(
+    String cursor,
+    boolean reset,
+    List<VetChange> changes
+) {
+}
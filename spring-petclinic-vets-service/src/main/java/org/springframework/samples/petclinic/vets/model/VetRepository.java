@@ -15,6 +15,7 @@
  */
 package org.springframework.samples.petclinic.vets.model;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 /**
@@ -28,4 +29,12 @@ import org.springframework.data.jpa.repository.JpaRepository;
  * @author Maciej Szarlinski
  */
 public interface VetRepository extends JpaRepository<Vet, Integer> {
+
+    /**
+     * All vets with their ETag, cached in the {@code vets} cache.
+     */
+    @Cacheable(value = "vets", sync = true)
+    default VetsSnapshot findSnapshot() {
+        return VetsSnapshot.of(findAll());
+    }
 }
@@ -0,0 +1,43 @@
+package org.springframework.samples.petclinic.vets.model;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * The list of vets together with a strong ETag derived from its content, computed once per load
+ * so that conditional requests can be answered without serializing the vets.
+ */
+public record VetsSnapshot(
+    List<Vet> vets,
+    String etag
+) {
+
+    public static VetsSnapshot of(List<Vet> vets) {
+        StringBuilder content = new StringBuilder();
+        for (Vet vet : vets) {
+            describe(vet, content).append('\n');
+        }
+        return new VetsSnapshot(List.copyOf(vets), "\"" + md5(content) + "\"");
+    }
+
+    /**
+     * @return a hash of the content of the vet, which changes whenever its JSON does
+     */
+    static String version(Vet vet) {
+        return md5(describe(vet, new StringBuilder()));
+    }
+
+    private static StringBuilder describe(Vet vet, StringBuilder content) {
+        content.append(vet.getId()).append('|').append(vet.getFirstName()).append('|').append(vet.getLastName());
+        for (Specialty specialty : vet.getSpecialties()) {
+            content.append('|').append(specialty.getId()).append(':').append(specialty.getName());
+        }
+        return content;
+    }
+
+    private static String md5(CharSequence content) {
+        return DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
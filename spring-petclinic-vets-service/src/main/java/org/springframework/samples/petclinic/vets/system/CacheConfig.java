@@ -15,11 +15,32 @@
  */
 package org.springframework.samples.petclinic.vets.system;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.samples.petclinic.vets.model.VetRepository;
+import org.springframework.samples.petclinic.vets.model.VetsSnapshot;
+
+import java.time.Duration;
+import java.util.List;
 
 /**
+ * Caffeine cache for the vets list.
+ * <p>
+ * Entries are refreshed ahead: the first read after {@code vets.cache.ttl} seconds still returns the cached
+ * list and triggers a background reload, so callers never wait for the database once the cache is warm.
+ * An entry not refreshed within twice the ttl, because it was not read or its reload failed, expires,
+ * so that a list older than that is never served. Cache statistics are recorded and exported by the actuator
+ * as {@code cache.*} meters.
+ * <p>
+ * The cache holds a single entry, the {@link VetsSnapshot} under the key of the no-argument
+ * {@code VetRepository.findSnapshot()}; {@code vets.cache.heap-size} only caps the entries should
+ * another cached method be added.
+ * <p>
  * Cache could be disable in unit test.
  * @author Maciej Szarlinski
  */
@@ -27,4 +48,25 @@ import org.springframework.context.annotation.Profile;
 @EnableCaching
 @Profile("production")
 class CacheConfig {
+
+    static final String VETS_CACHE = "vets";
+
+    @Bean
+    CacheManager cacheManager(VetsProperties vetsProperties, VetRepository vetRepository) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // Only the caches registered below, no unbounded caches created on demand
+        cacheManager.setCacheNames(List.of());
+        // Reloads read the repository directly: VetRepository.findSnapshot() is itself served by this cache
+        cacheManager.registerCustomCache(VETS_CACHE,
+            vetsCacheBuilder(vetsProperties.cache()).build(key -> VetsSnapshot.of(vetRepository.findAll())));
+        return cacheManager;
+    }
+
+    static Caffeine<Object, Object> vetsCacheBuilder(VetsProperties.Cache properties) {
+        return Caffeine.newBuilder()
+            .maximumSize(properties.heapSize())
+            .refreshAfterWrite(Duration.ofSeconds(properties.ttl()))
+            .expireAfterWrite(Duration.ofSeconds(2L * properties.ttl()))
+            .recordStats();
+    }
 }
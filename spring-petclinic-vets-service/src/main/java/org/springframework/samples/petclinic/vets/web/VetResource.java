@@ -17,11 +17,15 @@ package org.springframework.samples.petclinic.vets.web;
 
 import java.util.List;
 
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.http.ResponseEntity;
 import org.springframework.samples.petclinic.vets.model.Vet;
+import org.springframework.samples.petclinic.vets.model.VetChangeFeed;
+import org.springframework.samples.petclinic.vets.model.VetChanges;
 import org.springframework.samples.petclinic.vets.model.VetRepository;
+import org.springframework.samples.petclinic.vets.model.VetsSnapshot;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
@@ -36,14 +40,31 @@ import org.springframework.web.bind.annotation.RestController;
 class VetResource {
 
     private final VetRepository vetRepository;
+    private final VetChangeFeed vetChangeFeed;
 
-    VetResource(VetRepository vetRepository) {
+    VetResource(VetRepository vetRepository, VetChangeFeed vetChangeFeed) {
         this.vetRepository = vetRepository;
+        this.vetChangeFeed = vetChangeFeed;
     }
 
+    /**
+     * Lists the vets with a strong ETag. A request whose {@code If-None-Match} matches gets
+     * a 304 Not Modified without the vets being serialized.
+     */
     @GetMapping
-    @Cacheable("vets")
-    public List<Vet> showResourcesVetList() {
-        return vetRepository.findAll();
+    public ResponseEntity<List<Vet>> showResourcesVetList() {
+        VetsSnapshot snapshot = vetRepository.findSnapshot();
+        return ResponseEntity.ok()
+            .eTag(snapshot.etag())
+            .body(snapshot.vets());
+    }
+
+    /**
+     * Lists the vets created, updated or deleted since the cursor of a previous call, or all of them with
+     * {@code reset} set when the cursor is missing or too old.
+     */
+    @GetMapping("/changes")
+    public VetChanges showVetChanges(@RequestParam(required = false) String cursor) {
+        return vetChangeFeed.changesSince(cursor);
     }
 }
@@ -0,0 +1,90 @@
+package org.springframework.samples.petclinic.vets.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class VetChangeFeedTest {
+
+    private final VetRepository vetRepository = mock(VetRepository.class);
+    private final VetChangeFeed feed = new VetChangeFeed(vetRepository);
+
+    private Vet carter;
+    private Vet leary;
+
+    @BeforeEach
+    void setUp() {
+        carter = vet(1, "Carter");
+        leary = vet(2, "Leary");
+        given(vetRepository.findSnapshot()).willReturn(VetsSnapshot.of(List.of(carter, leary)));
+    }
+
+    @Test
+    void shouldListEveryVetWithoutACursor() {
+        VetChanges changes = feed.changesSince(null);
+
+        assertThat(changes.reset()).isTrue();
+        assertThat(changes.changes())
+            .extracting(VetChange::vetId, VetChange::type, VetChange::vet)
+            .containsExactly(tuple(1, VetChange.Type.CREATED, carter), tuple(2, VetChange.Type.CREATED, leary));
+    }
+
+    @Test
+    void shouldOnlyListTheVetsChangedSinceTheCursor() {
+        String cursor = feed.changesSince(null).cursor();
+        assertThat(feed.changesSince(cursor).changes()).isEmpty();
+
+        Vet updated = vet(2, "Leary-Douglas");
+        Vet created = vet(3, "Douglas");
+        given(vetRepository.findSnapshot()).willReturn(VetsSnapshot.of(List.of(updated, created)));
+        VetChanges changes = feed.changesSince(cursor);
+
+        assertThat(changes.reset()).isFalse();
+        assertThat(changes.changes())
+            .extracting(VetChange::vetId, VetChange::type, VetChange::vet)
+            .containsExactly(
+                tuple(2, VetChange.Type.UPDATED, updated),
+                tuple(3, VetChange.Type.CREATED, created),
+                tuple(1, VetChange.Type.DELETED, null));
+        assertThat(changes.changes().get(0).version())
+            .isEqualTo(VetsSnapshot.version(updated))
+            .isNotEqualTo(VetsSnapshot.version(leary));
+        assertThat(feed.changesSince(changes.cursor()).changes()).isEmpty();
+    }
+
+    @Test
+    void shouldResetACursorOfAnotherInstance() {
+        String cursor = new VetChangeFeed(vetRepository).changesSince(null).cursor();
+
+        assertThat(feed.changesSince(cursor).reset()).isTrue();
+        assertThat(feed.changesSince("unknown").reset()).isTrue();
+    }
+
+    @Test
+    void shouldResetACursorOlderThanTheChangesKept() {
+        String cursor = feed.changesSince(null).cursor();
+        for (int i = 0; i <= VetChangeFeed.MAX_CHANGES; i++) {
+            given(vetRepository.findSnapshot()).willReturn(VetsSnapshot.of(List.of(vet(1, "Carter " + i))));
+            feed.changesSince(null);
+        }
+
+        VetChanges changes = feed.changesSince(cursor);
+
+        assertThat(changes.reset()).isTrue();
+        assertThat(changes.changes()).extracting(VetChange::vetId).containsExactly(1);
+    }
+
+    private static Vet vet(int id, String lastName) {
+        Vet vet = new Vet();
+        vet.setId(id);
+        vet.setFirstName("James");
+        vet.setLastName(lastName);
+        return vet;
+    }
+}
@@ -0,0 +1,140 @@
+package org.springframework.samples.petclinic.vets.system;
+
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.samples.petclinic.vets.model.VetRepository;
+import org.springframework.samples.petclinic.vets.model.VetsSnapshot;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles({"test", "production"})
+class CacheConfigTest {
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    VetRepository vetRepository;
+
+    @Test
+    void shouldServeTheVetsSnapshotFromTheCache() {
+        cacheManager.getCache(CacheConfig.VETS_CACHE).evict(SimpleKey.EMPTY);
+
+        VetsSnapshot snapshot = vetRepository.findSnapshot();
+
+        assertThat(snapshot.vets()).hasSize(6);
+        assertThat(vetRepository.findSnapshot()).isSameAs(snapshot);
+    }
+
+    @Test
+    void shouldBoundTheVetsCacheAndExportItsStatistics() {
+        Cache vets = cacheManager.getCache(CacheConfig.VETS_CACHE);
+
+        assertThat(vets).isInstanceOf(CaffeineCache.class);
+        assertThat(((CaffeineCache) vets).getNativeCache().policy().eviction().orElseThrow().getMaximum()).isEqualTo(10);
+        assertThat(cacheManager.getCache("unknown")).isNull();
+
+        double hits = hitCount();
+        vets.get(SimpleKey.EMPTY, List::of);
+        vets.get(SimpleKey.EMPTY, List::of);
+        assertThat(hitCount()).isGreaterThan(hits);
+    }
+
+    @Test
+    void concurrentMissesShouldLoadOnce() {
+        Cache vets = cacheManager.getCache(CacheConfig.VETS_CACHE);
+        vets.evict(SimpleKey.EMPTY);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<CompletableFuture<List<String>>> callers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            callers.add(CompletableFuture.supplyAsync(() -> {
+                await(start);
+                return vets.<List<String>>get(SimpleKey.EMPTY, () -> {
+                    loads.incrementAndGet();
+                    Thread.sleep(200);
+                    return List.of("vet");
+                });
+            }));
+        }
+        start.countDown();
+
+        callers.forEach(caller -> assertThat(caller.join()).containsExactly("vet"));
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void expiredEntryShouldBeServedWhileRefreshedInTheBackground() {
+        AtomicLong nanos = new AtomicLong();
+        AtomicInteger version = new AtomicInteger();
+        Queue<Runnable> backgroundTasks = new ArrayDeque<>();
+        LoadingCache<Object, Object> cache =
+            CacheConfig.vetsCacheBuilder(new VetsProperties.Cache(10, 10))
+                .ticker(nanos::get)
+                .executor(backgroundTasks::add)
+                .build(key -> "vets v" + version.incrementAndGet());
+
+        assertThat(cache.get(SimpleKey.EMPTY)).isEqualTo("vets v1");
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(11));
+        assertThat(cache.get(SimpleKey.EMPTY)).isEqualTo("vets v1");
+        assertThat(version).hasValue(1);
+        while (!backgroundTasks.isEmpty()) {
+            backgroundTasks.poll().run();
+        }
+        assertThat(cache.get(SimpleKey.EMPTY)).isEqualTo("vets v2");
+        assertThat(cache.stats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void entryNotRefreshedWithinTwiceTheTtlShouldExpire() {
+        AtomicLong nanos = new AtomicLong();
+        AtomicInteger version = new AtomicInteger();
+        LoadingCache<Object, Object> cache =
+            CacheConfig.vetsCacheBuilder(new VetsProperties.Cache(10, 10))
+                .ticker(nanos::get)
+                .executor(Runnable::run)
+                .build(key -> "vets v" + version.incrementAndGet());
+
+        assertThat(cache.get(SimpleKey.EMPTY)).isEqualTo("vets v1");
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(21));
+        assertThat(cache.get(SimpleKey.EMPTY)).isEqualTo("vets v2");
+        assertThat(cache.stats().missCount()).isEqualTo(2);
+    }
+
+    private double hitCount() {
+        return meterRegistry.get("cache.gets").tag("cache", "vets").tag("result", "hit").functionCounter().count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
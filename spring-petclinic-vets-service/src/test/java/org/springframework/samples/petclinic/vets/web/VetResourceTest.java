@@ -22,7 +22,9 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.samples.petclinic.vets.model.Vet;
+import org.springframework.samples.petclinic.vets.model.VetChangeFeed;
 import org.springframework.samples.petclinic.vets.model.VetRepository;
+import org.springframework.samples.petclinic.vets.model.VetsSnapshot;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
@@ -30,6 +32,8 @@ import org.springframework.test.web.servlet.MockMvc;
 import static java.util.Arrays.asList;
 import static org.mockito.BDDMockito.given;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -47,16 +51,37 @@ class VetResourceTest {
     @MockBean
     VetRepository vetRepository;
 
+    @MockBean
+    VetChangeFeed vetChangeFeed;
+
     @Test
     void shouldGetAListOfVets() throws Exception {
 
         Vet vet = new Vet();
         vet.setId(1);
 
-        given(vetRepository.findAll()).willReturn(asList(vet));
+        given(vetRepository.findSnapshot()).willReturn(VetsSnapshot.of(asList(vet)));
 
         mvc.perform(get("/vets").accept(MediaType.APPLICATION_JSON))
             .andExpect(status().isOk())
+            .andExpect(header().string("ETag", VetsSnapshot.of(asList(vet)).etag()))
             .andExpect(jsonPath("$[0].id").value(1));
     }
+
+    @Test
+    void shouldAnswerNotModifiedWhenETagMatches() throws Exception {
+        Vet vet = new Vet();
+        vet.setId(1);
+        VetsSnapshot snapshot = VetsSnapshot.of(asList(vet));
+        given(vetRepository.findSnapshot()).willReturn(snapshot);
+
+        mvc.perform(get("/vets").header("If-None-Match", snapshot.etag()))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string("ETag", snapshot.etag()))
+            .andExpect(content().string(""));
+
+        vet.setLastName("Carter");
+        mvc.perform(get("/vets").header("If-None-Match", VetsSnapshot.of(asList(vet)).etag()))
+            .andExpect(status().isOk());
+    }
 }
@@ -0,0 +1,62 @@
+package org.springframework.samples.petclinic.virtualthreads;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VirtualThreadPinningMonitorTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(meterRegistry,
+        Duration.ofMillis(20));
+
+    @AfterEach
+    void stop() {
+        monitor.stop();
+    }
+
+    @Test
+    void shouldCountAVirtualThreadBlockingInsideASynchronizedBlock() throws InterruptedException {
+        monitor.start();
+        assertThat(monitor.isRunning()).isTrue();
+        Object lock = new Object();
+
+        Thread.ofVirtual().start(() -> {
+            synchronized (lock) {
+                sleep(Duration.ofMillis(200));
+            }
+        }).join();
+
+        // JFR streams its events about once a second
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (pinned() == 0 && System.nanoTime() < deadline) {
+            sleep(Duration.ofMillis(50));
+        }
+        assertThat(pinned()).isEqualTo(1);
+    }
+
+    @Test
+    void stopShouldEndTheRecording() {
+        monitor.start();
+        monitor.stop();
+
+        assertThat(monitor.isRunning()).isFalse();
+    }
+
+    private double pinned() {
+        return meterRegistry.get("jvm.threads.virtual.pinned").counter().count();
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
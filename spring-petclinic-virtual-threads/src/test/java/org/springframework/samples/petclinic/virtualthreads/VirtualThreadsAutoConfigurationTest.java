@@ -0,0 +1,39 @@
+package org.springframework.samples.petclinic.virtualthreads;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VirtualThreadsAutoConfigurationTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+        .withConfiguration(AutoConfigurations.of(VirtualThreadsAutoConfiguration.class))
+        .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+        // converts the threshold as SpringApplication does
+        .withInitializer(context -> context.getBeanFactory()
+            .setConversionService(ApplicationConversionService.getSharedInstance()));
+
+    @Test
+    void shouldBackOffOnPlatformThreads() {
+        contextRunner.run(context -> assertThat(context).doesNotHaveBean(VirtualThreadPinningMonitor.class));
+        contextRunner.withPropertyValues("spring.threads.virtual.enabled=false")
+            .run(context -> assertThat(context).doesNotHaveBean(VirtualThreadPinningMonitor.class));
+    }
+
+    @Test
+    void shouldMonitorPinningOnVirtualThreads() {
+        contextRunner.withPropertyValues("spring.threads.virtual.enabled=true",
+                "petclinic.virtual-threads.pinning-threshold=50ms")
+            .run(context -> {
+                assertThat(context).hasSingleBean(VirtualThreadPinningMonitor.class);
+                assertThat(context.getBean(VirtualThreadPinningMonitor.class).isRunning()).isTrue();
+                assertThat(context.getBean(MeterRegistry.class).get("jvm.threads.virtual.pinned").counter().getId()
+                    .getDescription()).endsWith("PT0.05S");
+            });
+    }
+}
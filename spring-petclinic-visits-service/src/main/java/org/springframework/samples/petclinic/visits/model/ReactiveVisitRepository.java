@@ -0,0 +1,57 @@
+package org.springframework.samples.petclinic.visits.model;
+
+import io.r2dbc.spi.Readable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Date;
+
+/**
+ * Non-blocking reads of <code>Visit</code> rows through R2DBC, used by the reactive profile.
+ * Rows are emitted as they are read and on demand, so a slow client slows the query down instead of
+ * having the result buffered in memory. Writes stay with the JPA {@link VisitRepository}.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveVisitRepository {
+
+    private static final String SELECT_VISITS = "SELECT id, pet_id, visit_date, description FROM visits ";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveVisitRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Flux<Visit> findByPetId(int petId) {
+        return databaseClient.sql(SELECT_VISITS + "WHERE pet_id = :petId ORDER BY id")
+            .bind("petId", petId)
+            .map(ReactiveVisitRepository::toVisit)
+            .all();
+    }
+
+    /**
+     * @return the visits of the given pets, ordered by pet id so that the visits of a pet are contiguous
+     */
+    public Flux<Visit> findByPetIdIn(Collection<Integer> petIds) {
+        return databaseClient.sql(SELECT_VISITS + "WHERE pet_id IN (:petIds) ORDER BY pet_id, id")
+            .bind("petIds", petIds)
+            .map(ReactiveVisitRepository::toVisit)
+            .all();
+    }
+
+    private static Visit toVisit(Readable row) {
+        LocalDate date = row.get("visit_date", LocalDate.class);
+        return Visit.VisitBuilder.aVisit()
+            .id(row.get("id", Integer.class))
+            .petId(row.get("pet_id", Integer.class))
+            .date(date == null ? null : Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant()))
+            .description(row.get("description", String.class))
+            .build();
+    }
+}
@@ -0,0 +1,36 @@
+package org.springframework.samples.petclinic.visits.model;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Date;
+
+/**
+ * {@link Specification}s over a pet's visit history, all answered from the {@code (pet_id, visit_date)} index.
+ */
+public final class VisitSpecifications {
+
+    private VisitSpecifications() {
+    }
+
+    public static Specification<Visit> forPet(int petId) {
+        return (root, query, cb) -> cb.equal(root.get("petId"), petId);
+    }
+
+    public static Specification<Visit> onOrAfter(Date from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("date"), from);
+    }
+
+    public static Specification<Visit> before(Date to) {
+        return (root, query, cb) -> cb.lessThan(root.get("date"), to);
+    }
+
+    /**
+     * Keyset condition for visits sorted by date then id, most recent first:
+     * the visits that come after the visit of the given date and id.
+     */
+    public static Specification<Visit> olderThan(Date date, int id) {
+        return (root, query, cb) -> cb.or(
+            cb.lessThan(root.get("date"), date),
+            cb.and(cb.equal(root.get("date"), date), cb.lessThan(root.get("id"), id)));
+    }
+}
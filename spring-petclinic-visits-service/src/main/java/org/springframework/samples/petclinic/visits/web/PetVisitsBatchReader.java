@@ -0,0 +1,109 @@
+package org.springframework.samples.petclinic.visits.web;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.samples.petclinic.visits.model.Visit;
+import org.springframework.samples.petclinic.visits.model.VisitRepository;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Consumer;
+
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Reads the visits of many pets by splitting the pet ids into chunks of at most {@code visits.batch.chunk-size}
+ * ids, so that no query exceeds the database's IN-list or bind parameter limits, and running the chunk queries
+ * concurrently on at most {@code visits.batch.parallelism} connections.
+ * <p>
+ * A pet's visits are all read by the same chunk, so each chunk's result is grouped by pet as soon as it completes
+ * and handed over without waiting for the other chunks.
+ */
+@Component
+@Profile("!reactive")
+class PetVisitsBatchReader implements DisposableBean {
+
+    private final VisitRepository visitRepository;
+    private final int chunkSize;
+    private final ThreadPoolTaskExecutor executor;
+
+    PetVisitsBatchReader(VisitRepository visitRepository,
+                         @Value("${visits.batch.chunk-size:500}") int chunkSize,
+                         @Value("${visits.batch.parallelism:4}") int parallelism) {
+        this.visitRepository = visitRepository;
+        this.chunkSize = chunkSize;
+        // Not a bean on purpose: an Executor bean would replace Spring Boot's application task executor
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(parallelism);
+        this.executor.setMaxPoolSize(parallelism);
+        this.executor.setQueueCapacity(parallelism * 64);
+        this.executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.setThreadNamePrefix("visits-batch-");
+        this.executor.initialize();
+    }
+
+    /**
+     * Reads the visits of the given pets and passes them to {@code consumer}, one {@link PetVisits} per pet having
+     * visits, on the calling thread. Pets are sorted by id within a chunk; chunks come in completion order.
+     */
+    void read(List<Integer> petIds, Consumer<PetVisits> consumer) {
+        List<List<Integer>> chunks = chunks(petIds, chunkSize);
+        BlockingQueue<CompletableFuture<List<PetVisits>>> completed = new LinkedBlockingQueue<>();
+        List<CompletableFuture<List<PetVisits>>> queries = new ArrayList<>(chunks.size());
+        for (List<Integer> chunk : chunks) {
+            CompletableFuture<List<PetVisits>> query = CompletableFuture.supplyAsync(() -> readChunk(chunk), executor);
+            query.whenComplete((visits, error) -> completed.add(query));
+            queries.add(query);
+        }
+        try {
+            for (int i = 0; i < chunks.size(); i++) {
+                completed.take().join().forEach(consumer);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while reading visits", e);
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        } finally {
+            queries.forEach(query -> query.cancel(false));
+        }
+    }
+
+    private List<PetVisits> readChunk(List<Integer> petIds) {
+        Map<Integer, List<Visit>> byPet = visitRepository.findByPetIdIn(petIds).stream()
+            .collect(groupingBy(Visit::getPetId, TreeMap::new, toList()));
+        return byPet.entrySet().stream()
+            .map(entry -> new PetVisits(entry.getKey(), entry.getValue()))
+            .toList();
+    }
+
+    static List<List<Integer>> chunks(List<Integer> ids, int chunkSize) {
+        List<List<Integer>> chunks = new ArrayList<>((ids.size() + chunkSize - 1) / chunkSize);
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            chunks.add(ids.subList(from, Math.min(from + chunkSize, ids.size())));
+        }
+        return chunks;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    record PetVisits(
+        int petId,
+        List<Visit> visits
+    ) {
+    }
+}
@@ -0,0 +1,98 @@
+package org.springframework.samples.petclinic.visits.web;
+
+import java.util.List;
+import java.util.Objects;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.samples.petclinic.visits.model.ReactiveVisitRepository;
+import org.springframework.samples.petclinic.visits.model.Visit;
+import org.springframework.samples.petclinic.visits.model.VisitRepository;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * WebFlux counterpart of {@link VisitResource}, active with the {@code reactive} profile. The visit reads used by
+ * the gateway are served from R2DBC and streamed with back-pressure, while a new visit is still saved through JPA,
+ * on the bounded elastic scheduler. The paged history and the bulk import are only served by {@link VisitResource}.
+ */
+@RestController
+@Profile("reactive")
+@Timed("petclinic.visit")
+class ReactiveVisitResource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveVisitResource.class);
+
+    private final VisitRepository visitRepository;
+    private final ReactiveVisitRepository reactiveVisitRepository;
+    private final int chunkSize;
+    private final int maxBatchPetIds;
+
+    ReactiveVisitResource(VisitRepository visitRepository, ReactiveVisitRepository reactiveVisitRepository,
+                          @Value("${visits.batch.chunk-size:500}") int chunkSize,
+                          @Value("${visits.batch.max-pet-ids:10000}") int maxBatchPetIds) {
+        this.visitRepository = visitRepository;
+        this.reactiveVisitRepository = reactiveVisitRepository;
+        this.chunkSize = chunkSize;
+        this.maxBatchPetIds = maxBatchPetIds;
+    }
+
+    @PostMapping("owners/*/pets/{petId}/visits")
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<Visit> create(
+        @Valid @RequestBody Visit visit,
+        @PathVariable("petId") @Min(1) int petId) {
+
+        visit.setPetId(petId);
+        log.info("Saving visit {}", visit);
+        return Mono.fromCallable(() -> visitRepository.save(visit))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @GetMapping(value = "owners/*/pets/{petId}/visits",
+        produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Visit> read(@PathVariable("petId") @Min(1) int petId) {
+        return reactiveVisitRepository.findByPetId(petId);
+    }
+
+    @GetMapping("pets/visits")
+    public Mono<VisitResource.Visits> read(@RequestParam("petId") List<Integer> petIds) {
+        return reactiveVisitRepository.findByPetIdIn(petIds)
+            .collectList()
+            .map(VisitResource.Visits::new);
+    }
+
+    /**
+     * Same contract as {@link VisitResource#readBatch(List)}: one NDJSON line per pet having visits. Chunks of pet ids
+     * are queried one after the other, and a pet's visits are sent as soon as its last row has been read.
+     */
+    @PostMapping(value = "pets/visits/batch", consumes = MediaType.APPLICATION_JSON_VALUE,
+        produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<PetVisitsBatchReader.PetVisits> readBatch(@RequestBody List<Integer> petIds) {
+        final List<Integer> ids = petIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (ids.size() > maxBatchPetIds) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "At most " + maxBatchPetIds + " pet ids can be looked up at once");
+        }
+        return Flux.fromIterable(PetVisitsBatchReader.chunks(ids, chunkSize))
+            .concatMap(reactiveVisitRepository::findByPetIdIn)
+            .bufferUntilChanged(Visit::getPetId)
+            .map(visits -> new PetVisitsBatchReader.PetVisits(visits.get(0).getPetId(), visits));
+    }
+}
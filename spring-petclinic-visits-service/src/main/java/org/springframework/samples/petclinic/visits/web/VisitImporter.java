@@ -0,0 +1,227 @@
+package org.springframework.samples.petclinic.visits.web;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DatabindException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Imports visits in bulk from a JSON array or a newline-delimited JSON stream, read row by row so that the
+ * request is never held in memory.
+ * <p>
+ * Valid rows are inserted with plain JDBC batches of {@code visits.import.batch-size} rows, each batch in its own
+ * transaction; on MySQL, {@code rewriteBatchedStatements} turns each batch into a single multi-row insert.
+ * Invalid rows are skipped and reported with their 1-based position in the input. When a batch is refused by the
+ * database, its rows are inserted one by one to find out which of them failed.
+ */
+@Component
+@Profile("!reactive")
+class VisitImporter {
+
+    static final String INSERT_VISIT = "INSERT INTO visits (pet_id, visit_date, description) VALUES (?, ?, ?)";
+
+    private static final Logger log = LoggerFactory.getLogger(VisitImporter.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int batchSize;
+    private final int maxReportedErrors;
+
+    VisitImporter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+                  Validator validator,
+                  @Value("${visits.import.batch-size:1000}") int batchSize,
+                  @Value("${visits.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    /**
+     * Imports a JSON array of visits. A syntax error stops the import, as the rest of the array cannot be read;
+     * the rows read so far are kept.
+     */
+    ImportResult importArray(InputStream in) throws IOException {
+        Batch batch = new Batch();
+        try (MappingIterator<VisitRow> rows = objectMapper.readerFor(VisitRow.class).readValues(in)) {
+            for (int row = 1; ; row++) {
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    batch.add(row, rows.nextValue());
+                } catch (JsonParseException e) {
+                    batch.reject(row, "Malformed JSON, import stopped: " + e.getOriginalMessage());
+                    break;
+                } catch (DatabindException e) {
+                    batch.reject(row, "Unreadable row: " + e.getOriginalMessage());
+                }
+            }
+        }
+        return batch.finish();
+    }
+
+    /**
+     * Imports newline-delimited JSON visits, one per line. Blank lines are ignored.
+     */
+    ImportResult importLines(InputStream in) throws IOException {
+        Batch batch = new Batch();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        int row = 0;
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            if (line.isBlank()) {
+                continue;
+            }
+            row++;
+            try {
+                batch.add(row, objectMapper.readValue(line, VisitRow.class));
+            } catch (JsonProcessingException e) {
+                batch.reject(row, "Unreadable row: " + e.getOriginalMessage());
+            }
+        }
+        return batch.finish();
+    }
+
+    /**
+     * Rows waiting to be inserted and the outcome of the import so far.
+     */
+    private final class Batch {
+
+        private final long start = System.nanoTime();
+        private final List<VisitRow> pending = new ArrayList<>(batchSize);
+        private final List<Integer> pendingRows = new ArrayList<>(batchSize);
+        private final List<RowError> errors = new ArrayList<>();
+        private int imported;
+        private int rejected;
+
+        void add(int row, VisitRow visit) {
+            if (visit == null) {
+                reject(row, "Empty row");
+                return;
+            }
+            var violations = validator.validate(visit);
+            if (!violations.isEmpty()) {
+                reject(row, violations.stream()
+                    .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+                return;
+            }
+            pending.add(visit);
+            pendingRows.add(row);
+            if (pending.size() == batchSize) {
+                flush();
+            }
+        }
+
+        void reject(int row, String message) {
+            rejected++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new RowError(row, message));
+            }
+        }
+
+        ImportResult finish() {
+            flush();
+            long elapsedMillis = Math.max((System.nanoTime() - start) / 1_000_000, 1);
+            double rowsPerSecond = imported * 1000.0 / elapsedMillis;
+            log.info("Imported {} visits, rejected {}, in {} ms ({} rows/s)", imported, rejected, elapsedMillis,
+                Math.round(rowsPerSecond));
+            return new ImportResult(imported, rejected, elapsedMillis, rowsPerSecond, errors);
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(INSERT_VISIT, pending, pending.size(), (ps, visit) -> {
+                        ps.setInt(1, visit.petId());
+                        ps.setDate(2, Date.valueOf(visit.visitDate()));
+                        ps.setString(3, visit.description());
+                    }));
+                imported += pending.size();
+            } catch (DataAccessException batchFailure) {
+                log.debug("Batch of {} visits refused, inserting them one by one", pending.size(), batchFailure);
+                for (int i = 0; i < pending.size(); i++) {
+                    insertOne(pendingRows.get(i), pending.get(i));
+                }
+            }
+            pending.clear();
+            pendingRows.clear();
+        }
+
+        private void insertOne(int row, VisitRow visit) {
+            try {
+                jdbcTemplate.update(INSERT_VISIT, visit.petId(),
+                    Date.valueOf(visit.visitDate()), visit.description());
+                imported++;
+            } catch (DataAccessException e) {
+                reject(row, "Refused by the database: " + e.getMostSpecificCause().getMessage());
+            }
+        }
+    }
+
+    /**
+     * A visit as read from the import stream. A missing date stands for today, as for a single visit.
+     */
+    record VisitRow(
+        @NotNull @Min(1) Integer petId,
+        @JsonFormat(pattern = "yyyy-MM-dd") LocalDate date,
+        @Size(max = 8192) String description
+    ) {
+
+        LocalDate visitDate() {
+            return date == null ? LocalDate.now() : date;
+        }
+    }
+
+    record RowError(
+        int row,
+        String message
+    ) {
+    }
+
+    /**
+     * Outcome of an import. {@code errors} lists at most {@code visits.import.max-reported-errors} rejected rows.
+     */
+    record ImportResult(
+        int imported,
+        int rejected,
+        long elapsedMillis,
+        double rowsPerSecond,
+        List<RowError> errors
+    ) {
+    }
+}
@@ -15,14 +15,32 @@
  */
 package org.springframework.samples.petclinic.visits.web;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
 import java.util.List;
+import java.util.Objects;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.samples.petclinic.visits.model.Visit;
 import org.springframework.samples.petclinic.visits.model.VisitRepository;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -32,6 +50,13 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import static org.springframework.samples.petclinic.visits.model.VisitSpecifications.before;
+import static org.springframework.samples.petclinic.visits.model.VisitSpecifications.forPet;
+import static org.springframework.samples.petclinic.visits.model.VisitSpecifications.olderThan;
+import static org.springframework.samples.petclinic.visits.model.VisitSpecifications.onOrAfter;
 
 /**
  * @author Juergen Hoeller
@@ -42,15 +67,27 @@ import org.springframework.web.bind.annotation.RestController;
  * @author Ramazan Sakin
  */
 @RestController
+@Profile("!reactive")
 @Timed("petclinic.visit")
 class VisitResource {
 
+    static final int MAX_PAGE_SIZE = 100;
+
     private static final Logger log = LoggerFactory.getLogger(VisitResource.class);
 
     private final VisitRepository visitRepository;
+    private final PetVisitsBatchReader batchReader;
+    private final VisitImporter visitImporter;
+    private final ObjectMapper objectMapper;
+    private final int maxBatchPetIds;
 
-    VisitResource(VisitRepository visitRepository) {
+    VisitResource(VisitRepository visitRepository, PetVisitsBatchReader batchReader, VisitImporter visitImporter,
+                  ObjectMapper objectMapper, @Value("${visits.batch.max-pet-ids:10000}") int maxBatchPetIds) {
         this.visitRepository = visitRepository;
+        this.batchReader = batchReader;
+        this.visitImporter = visitImporter;
+        this.objectMapper = objectMapper;
+        this.maxBatchPetIds = maxBatchPetIds;
     }
 
     @PostMapping("owners/*/pets/{petId}/visits")
@@ -69,14 +106,111 @@ class VisitResource {
         return visitRepository.findByPetId(petId);
     }
 
+    /**
+     * A page of a pet's visit history, most recent first, optionally restricted to the visits
+     * from {@code from} to {@code to} inclusive. Pages are chained with the {@code next} cursor
+     * (date and id of the last visit of the page), which is {@code null} on the last page, so that
+     * any page is read from the {@code (pet_id, visit_date)} index at the cost of the first one.
+     */
+    @GetMapping("owners/*/pets/{petId}/visits/page")
+    public VisitsPage readPage(@PathVariable("petId") @Min(1) int petId,
+                               @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                               @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                               @RequestParam(name = "after", required = false) String after,
+                               @RequestParam(name = "limit", defaultValue = "20") int limit) {
+        Specification<Visit> spec = forPet(petId);
+        if (from != null) {
+            spec = spec.and(onOrAfter(toDate(from)));
+        }
+        if (to != null) {
+            spec = spec.and(before(toDate(to.plusDays(1))));
+        }
+        if (after != null) {
+            spec = spec.and(olderThanCursor(after));
+        }
+        final int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        final List<Visit> visits = visitRepository.findBy(spec,
+            query -> query.sortBy(Sort.by(Sort.Direction.DESC, "date", "id")).limit(pageSize).all());
+        final String next = visits.size() < pageSize ? null : cursor(visits.get(visits.size() - 1));
+        return new VisitsPage(visits, next);
+    }
+
+    private static String cursor(Visit visit) {
+        LocalDate date = Instant.ofEpochMilli(visit.getDate().getTime()).atZone(ZoneId.systemDefault()).toLocalDate();
+        return date + "_" + visit.getId();
+    }
+
+    private static Specification<Visit> olderThanCursor(String cursor) {
+        int separator = cursor.indexOf('_');
+        try {
+            LocalDate date = LocalDate.parse(cursor.substring(0, Math.max(separator, 0)));
+            int id = Integer.parseInt(cursor.substring(separator + 1));
+            return olderThan(toDate(date), id);
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor: " + cursor, e);
+        }
+    }
+
+    private static Date toDate(LocalDate date) {
+        return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
     @GetMapping("pets/visits")
     public Visits read(@RequestParam("petId") List<Integer> petIds) {
         final List<Visit> byPetIdIn = visitRepository.findByPetIdIn(petIds);
         return new Visits(byPetIdIn);
     }
 
+    /**
+     * Bulk lookup of the visits of the pets whose ids are posted as a JSON array. The response is streamed
+     * as newline-delimited JSON, one {@code {"petId": ..., "visits": [...]}} line per pet having visits.
+     */
+    @PostMapping(value = "pets/visits/batch", consumes = MediaType.APPLICATION_JSON_VALUE,
+        produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> readBatch(@RequestBody List<Integer> petIds) {
+        final List<Integer> ids = petIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (ids.size() > maxBatchPetIds) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "At most " + maxBatchPetIds + " pet ids can be looked up at once");
+        }
+        final StreamingResponseBody body = out -> batchReader.read(ids, petVisits -> writeLine(out, petVisits));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Bulk import of visits posted as a JSON array. Rows that cannot be imported are reported in the result
+     * and do not prevent the other rows from being imported.
+     */
+    @PostMapping(value = "pets/visits/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public VisitImporter.ImportResult importVisits(InputStream body) throws IOException {
+        return visitImporter.importArray(body);
+    }
+
+    /**
+     * Bulk import of visits posted as newline-delimited JSON, one visit per line.
+     */
+    @PostMapping(value = "pets/visits/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public VisitImporter.ImportResult importVisitLines(InputStream body) throws IOException {
+        return visitImporter.importLines(body);
+    }
+
+    private void writeLine(OutputStream out, Object value) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(value));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     record Visits(
         List<Visit> items
     ) {
     }
+
+    record VisitsPage(
+        List<Visit> items,
+        String next
+    ) {
+    }
 }
@@ -9,3 +9,12 @@ CREATE TABLE IF NOT EXISTS visits (
   description VARCHAR(8192),
   FOREIGN KEY (pet_id) REFERENCES pets(id)
 ) engine=InnoDB;
+
+-- Index of the visit history of a pet, also created in databases whose visits table predates it.
+-- MySQL has no CREATE INDEX IF NOT EXISTS: it is only created when information_schema lacks it.
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX visits_pet_id_visit_date ON visits (pet_id, visit_date)', 'DO 0')
+  FROM information_schema.statistics
+  WHERE table_schema = DATABASE() AND table_name = 'visits' AND index_name = 'visits_pet_id_visit_date');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,79 @@
+package org.springframework.samples.petclinic.visits.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.samples.petclinic.visits.model.VisitSpecifications.before;
+import static org.springframework.samples.petclinic.visits.model.VisitSpecifications.forPet;
+import static org.springframework.samples.petclinic.visits.model.VisitSpecifications.olderThan;
+import static org.springframework.samples.petclinic.visits.model.VisitSpecifications.onOrAfter;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.HSQLDB)
+@ActiveProfiles("test")
+class VisitRepositoryTest {
+
+    private static final int PET_ID = 42;
+
+    @Autowired
+    VisitRepository visitRepository;
+
+    @BeforeEach
+    void createHistory() {
+        // 25 visits over 10 days, several on the same day
+        for (int i = 0; i < 25; i++) {
+            visitRepository.save(Visit.VisitBuilder.aVisit()
+                .petId(PET_ID)
+                .date(date(LocalDate.of(2020, 1, 1).plusDays(i % 10)))
+                .description("visit " + i)
+                .build());
+        }
+    }
+
+    @Test
+    void shouldWalkTheHistoryWithKeysetPages() {
+        List<Visit> walked = new ArrayList<>();
+        List<Visit> page = page(forPet(PET_ID));
+        while (!page.isEmpty()) {
+            walked.addAll(page);
+            Visit last = page.get(page.size() - 1);
+            page = page(forPet(PET_ID).and(olderThan(last.getDate(), last.getId())));
+        }
+
+        List<Visit> all = visitRepository.findAll(forPet(PET_ID), Sort.by(Sort.Direction.DESC, "date", "id"));
+        assertThat(walked).hasSize(25);
+        assertThat(walked).extracting(Visit::getId).containsExactlyElementsOf(all.stream().map(Visit::getId).toList());
+    }
+
+    @Test
+    void shouldFilterByDateRange() {
+        List<Visit> visits = visitRepository.findAll(forPet(PET_ID)
+            .and(onOrAfter(date(LocalDate.of(2020, 1, 3))))
+            .and(before(date(LocalDate.of(2020, 1, 5)))));
+
+        assertThat(visits).hasSize(6);
+    }
+
+    private List<Visit> page(Specification<Visit> spec) {
+        return visitRepository.findBy(spec,
+            query -> query.sortBy(Sort.by(Sort.Direction.DESC, "date", "id")).limit(10).all());
+    }
+
+    private static Date date(LocalDate date) {
+        return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -0,0 +1,51 @@
+package org.springframework.samples.petclinic.visits.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.samples.petclinic.visits.model.Visit;
+import org.springframework.samples.petclinic.visits.model.VisitRepository;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.HSQLDB)
+@ActiveProfiles("test")
+class PetVisitsBatchReaderTest {
+
+    @Autowired
+    VisitRepository visitRepository;
+
+    @Test
+    void shouldSplitIdsIntoBoundedChunks() {
+        List<Integer> ids = IntStream.rangeClosed(1, 1001).boxed().toList();
+
+        List<List<Integer>> chunks = PetVisitsBatchReader.chunks(ids, 500);
+
+        assertThat(chunks).extracting(List::size).containsExactly(500, 500, 1);
+        assertThat(chunks.get(2)).containsExactly(1001);
+    }
+
+    @Test
+    void shouldGroupVisitsOfAllChunksByPet() throws Exception {
+        PetVisitsBatchReader reader = new PetVisitsBatchReader(visitRepository, 2, 3);
+        List<PetVisitsBatchReader.PetVisits> result = new ArrayList<>();
+        try {
+            reader.read(List.of(1, 7, 99, 8, 3), result::add);
+        } finally {
+            reader.destroy();
+        }
+
+        assertThat(result).extracting(PetVisitsBatchReader.PetVisits::petId).containsExactlyInAnyOrder(7, 8);
+        assertThat(result).allSatisfy(petVisits -> assertThat(petVisits.visits())
+            .hasSize(2)
+            .extracting(Visit::getPetId).containsOnly(petVisits.petId()));
+    }
+}
@@ -0,0 +1,82 @@
+package org.springframework.samples.petclinic.visits.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the reactive profile against an in-memory H2 database shared by JDBC (JPA writes) and R2DBC (reads).
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "spring.datasource.url=jdbc:h2:mem:visits;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.r2dbc.url=r2dbc:h2:mem:///visits?options=DB_CLOSE_DELAY=-1",
+    "spring.r2dbc.username=sa",
+    "spring.sql.init.schema-locations=classpath:db/h2/schema.sql",
+    "visits.batch.chunk-size=1"
+})
+@AutoConfigureWebTestClient
+@ActiveProfiles({"test", "reactive"})
+class ReactiveVisitResourceTest {
+
+    @Autowired
+    WebTestClient client;
+
+    @Test
+    void shouldStreamTheVisitsOfAPet() {
+        client.get().uri("/owners/1/pets/7/visits")
+            .accept(MediaType.APPLICATION_NDJSON)
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+            .expectBody(String.class)
+            .isEqualTo("""
+                {"id":1,"date":"2013-01-01","description":"rabies shot","petId":7}
+                {"id":4,"date":"2013-01-04","description":"spayed","petId":7}
+                """);
+    }
+
+    @Test
+    void shouldReadVisitsSavedThroughJpa() {
+        client.post().uri("/owners/1/pets/9/visits")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue("{\"date\": \"2024-03-01\", \"description\": \"check-up\"}")
+            .exchange()
+            .expectStatus().isCreated()
+            .expectBody().jsonPath("$.id").isNumber();
+
+        client.get().uri("/pets/visits?petId=9")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.items.length()").isEqualTo(1)
+            .jsonPath("$.items[0].description").isEqualTo("check-up")
+            .jsonPath("$.items[0].date").isEqualTo("2024-03-01");
+    }
+
+    @Test
+    void shouldStreamABatchOneLinePerPet() {
+        List<PetVisitsBatchReader.PetVisits> lines = client.post().uri("/pets/visits/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .accept(MediaType.APPLICATION_NDJSON)
+            .bodyValue(List.of(8, 7, 404, 8))
+            .exchange()
+            .expectStatus().isOk()
+            .returnResult(PetVisitsBatchReader.PetVisits.class)
+            .getResponseBody()
+            .collectList()
+            .block();
+
+        assertThat(lines).extracting(PetVisitsBatchReader.PetVisits::petId).containsExactly(8, 7);
+        assertThat(lines.get(0).visits()).extracting(visit -> visit.getDescription())
+            .containsExactly("rabies shot", "neutered");
+    }
+}
@@ -0,0 +1,92 @@
+package org.springframework.samples.petclinic.visits.web;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.samples.petclinic.visits.model.Visit;
+import org.springframework.samples.petclinic.visits.model.VisitRepository;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the bulk import with saving the same visits one by one through the repository, on the hsqldb profile.
+ * <p>
+ * Run with {@code mvn test -Dtest=VisitImportBenchmarkTest -Dbenchmark=true [-Dbenchmark.visits=1000000]}.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.HSQLDB)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class VisitImportBenchmarkTest {
+
+    @Autowired
+    VisitRepository visitRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void deleteImportedVisits() {
+        jdbcTemplate.update("DELETE FROM visits WHERE pet_id >= 1000");
+    }
+
+    @Test
+    void compareImportStrategies() throws Exception {
+        int visits = Integer.getInteger("benchmark.visits", 200_000);
+        int saved = Math.min(visits, 20_000);
+
+        long saveStart = System.nanoTime();
+        for (int i = 0; i < saved; i++) {
+            visitRepository.save(Visit.VisitBuilder.aVisit()
+                .petId(1000 + i % 5_000)
+                .date(Date.from(LocalDate.of(2024, 1, 1).plusDays(i % 365).atStartOfDay(ZoneId.systemDefault()).toInstant()))
+                .description("visit " + i)
+                .build());
+        }
+        double saveRowsPerSecond = saved * 1e9 / (System.nanoTime() - saveStart);
+
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < visits; i++) {
+            lines.append("{\"petId\":").append(1000 + i % 5_000)
+                .append(",\"date\":\"").append(LocalDate.of(2024, 1, 1).plusDays(i % 365))
+                .append("\",\"description\":\"visit ").append(i).append("\"}\n");
+        }
+        byte[] body = lines.toString().getBytes(StandardCharsets.UTF_8);
+        System.out.printf("Visit import of %,d visits (%,d KB of NDJSON)%n", visits, body.length / 1024);
+        System.out.printf("  repository.save, one per row : %,12.0f rows/s (%,d rows)%n", saveRowsPerSecond, saved);
+
+        double fastest = 0;
+        for (int batchSize : new int[]{1, 100, 1_000, 5_000}) {
+            VisitImporter importer = new VisitImporter(jdbcTemplate, transactionManager,
+                JsonMapper.builder().findAndAddModules().build(),
+                Validation.buildDefaultValidatorFactory().getValidator(), batchSize, 10);
+            VisitImporter.ImportResult result = importer.importLines(new ByteArrayInputStream(body));
+            assertThat(result.imported()).isEqualTo(visits);
+            System.out.printf("  bulk import, batch of %,5d  : %,12.0f rows/s%n", batchSize, result.rowsPerSecond());
+            fastest = Math.max(fastest, result.rowsPerSecond());
+        }
+
+        assertThat(fastest).isGreaterThan(saveRowsPerSecond);
+    }
+}
@@ -0,0 +1,116 @@
+package org.springframework.samples.petclinic.visits.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.HSQLDB)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class VisitImporterTest {
+
+    private static final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void deleteImportedVisits() {
+        jdbcTemplate.update("DELETE FROM visits WHERE pet_id >= 1000");
+    }
+
+    @Test
+    void shouldImportValidRowsInBatchesAndReportInvalidOnes() throws Exception {
+        VisitImporter.ImportResult result = importer(2).importArray(json("""
+            [{"petId": 1000, "date": "2024-01-02", "description": "rabies shot"},
+             {"petId": 1000, "description": "no date"},
+             {"petId": 0, "date": "2024-01-03"},
+             {"petId": 1000, "date": "not a date"},
+             {"petId": 1000, "date": "2024-01-04", "description": "neutered"}]
+            """));
+
+        assertThat(result.imported()).isEqualTo(3);
+        assertThat(result.rejected()).isEqualTo(2);
+        assertThat(result.errors()).extracting(VisitImporter.RowError::row).containsExactly(3, 4);
+        assertThat(result.errors().get(0).message()).isEqualTo("petId must be greater than or equal to 1");
+        assertThat(result.rowsPerSecond()).isPositive();
+        assertThat(countVisits()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldImportNewlineDelimitedRows() throws Exception {
+        VisitImporter.ImportResult result = importer(100).importLines(json("""
+            {"petId": 1000, "date": "2024-01-02"}
+
+            {"petId": 1001, "date": "2024-01-02"
+            {"petId": 1001, "date": "2024-01-03"}
+            """));
+
+        assertThat(result.imported()).isEqualTo(2);
+        assertThat(result.errors()).extracting(VisitImporter.RowError::row).containsExactly(2);
+        assertThat(countVisits()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldKeepTheRestOfABatchRefusedByTheDatabase() throws Exception {
+        jdbcTemplate.execute("ALTER TABLE visits ADD CONSTRAINT visits_import_test CHECK (pet_id <> 1013)");
+        try {
+            VisitImporter.ImportResult result = importer(3).importLines(json("""
+                {"petId": 1011, "date": "2024-01-02"}
+                {"petId": 1013, "date": "2024-01-02"}
+                {"petId": 1012, "date": "2024-01-02"}
+                """));
+
+            assertThat(result.imported()).isEqualTo(2);
+            assertThat(result.errors()).extracting(VisitImporter.RowError::row).containsExactly(2);
+            assertThat(result.errors().get(0).message()).startsWith("Refused by the database");
+            assertThat(countVisits()).isEqualTo(2);
+        } finally {
+            jdbcTemplate.execute("ALTER TABLE visits DROP CONSTRAINT visits_import_test");
+        }
+    }
+
+    @Test
+    void shouldStopAtMalformedJsonAndKeepTheRowsReadBefore() throws Exception {
+        VisitImporter.ImportResult result = importer(100).importArray(json("""
+            [{"petId": 1000}, {"petId": 1000}, {"petId": """));
+
+        assertThat(result.imported()).isEqualTo(2);
+        assertThat(result.errors()).singleElement()
+            .satisfies(error -> assertThat(error.message()).startsWith("Malformed JSON"));
+    }
+
+    private VisitImporter importer(int batchSize) {
+        return new VisitImporter(jdbcTemplate, transactionManager, objectMapper,
+            Validation.buildDefaultValidatorFactory().getValidator(), batchSize, 10);
+    }
+
+    private int countVisits() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM visits WHERE pet_id >= 1000", Integer.class);
+    }
+
+    private static InputStream json(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
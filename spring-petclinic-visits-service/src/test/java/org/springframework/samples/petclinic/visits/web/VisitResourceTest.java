@@ -5,17 +5,37 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.samples.petclinic.visits.model.Visit;
 import org.springframework.samples.petclinic.visits.model.VisitRepository;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 
 import static java.util.Arrays.asList;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(SpringExtension.class)
@@ -29,6 +49,12 @@ class VisitResourceTest {
     @MockBean
     VisitRepository visitRepository;
 
+    @MockBean
+    PetVisitsBatchReader batchReader;
+
+    @MockBean
+    VisitImporter visitImporter;
+
     @Test
     void shouldFetchVisits() throws Exception {
         given(visitRepository.findByPetIdIn(asList(111, 222)))
@@ -58,4 +84,75 @@ class VisitResourceTest {
             .andExpect(jsonPath("$.items[1].petId").value(222))
             .andExpect(jsonPath("$.items[2].petId").value(222));
     }
+
+    @Test
+    void shouldStreamVisitsGroupedByPet() throws Exception {
+        willAnswer(invocation -> {
+            Consumer<PetVisitsBatchReader.PetVisits> consumer = invocation.getArgument(1);
+            consumer.accept(new PetVisitsBatchReader.PetVisits(111,
+                List.of(Visit.VisitBuilder.aVisit().id(1).petId(111).build())));
+            consumer.accept(new PetVisitsBatchReader.PetVisits(222,
+                List.of(Visit.VisitBuilder.aVisit().id(2).petId(222).build(), Visit.VisitBuilder.aVisit().id(3).petId(222).build())));
+            return null;
+        }).given(batchReader).read(eq(List.of(111, 222)), any());
+
+        MvcResult result = mvc.perform(post("/pets/visits/batch")
+                .contentType("application/json")
+                .content("[111, 222, 111]"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+            .andExpect(content().string(matchesPattern(
+                "\\{\"petId\":111,\"visits\":\\[\\{\"id\":1,.*}]}\n\\{\"petId\":222,\"visits\":\\[\\{\"id\":2,.*},\\{\"id\":3,.*}]}\n")));
+    }
+
+    @Test
+    void shouldRejectOversizedBatches() throws Exception {
+        String ids = IntStream.rangeClosed(1, 10_001).mapToObj(Integer::toString)
+            .collect(Collectors.joining(",", "[", "]"));
+
+        mvc.perform(post("/pets/visits/batch").contentType("application/json").content(ids))
+            .andExpect(status().isBadRequest());
+        verifyNoInteractions(batchReader);
+    }
+
+    @Test
+    void shouldReturnCursorOfLastVisitWhenPageIsFull() throws Exception {
+        given(visitRepository.findBy(any(Specification.class), any())).willReturn(List.of(
+            Visit.VisitBuilder.aVisit().id(9).petId(7).date(new GregorianCalendar(2013, Calendar.JANUARY, 4).getTime()).build(),
+            Visit.VisitBuilder.aVisit().id(4).petId(7).date(new GregorianCalendar(2013, Calendar.JANUARY, 1).getTime()).build()));
+
+        mvc.perform(get("/owners/1/pets/7/visits/page?limit=2&from=2013-01-01"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items[0].id").value(9))
+            .andExpect(jsonPath("$.next").value("2013-01-01_4"));
+
+        mvc.perform(get("/owners/1/pets/7/visits/page?limit=3"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.next").doesNotExist());
+    }
+
+    @Test
+    void shouldRejectMalformedCursor() throws Exception {
+        mvc.perform(get("/owners/1/pets/7/visits/page?after=yesterday"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldImportVisitsAccordingToContentType() throws Exception {
+        given(visitImporter.importLines(any())).willReturn(new VisitImporter.ImportResult(1, 1, 12, 83.3,
+            List.of(new VisitImporter.RowError(2, "petId must not be null"))));
+
+        mvc.perform(post("/pets/visits/import")
+                .contentType("application/x-ndjson")
+                .content("{\"petId\": 7}\n{}\n"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.imported").value(1))
+            .andExpect(jsonPath("$.errors[0].row").value(2))
+            .andExpect(jsonPath("$.errors[0].message").value("petId must not be null"));
+        verify(visitImporter, never()).importArray(any());
+    }
 }
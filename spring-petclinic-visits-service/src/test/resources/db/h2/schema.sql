@@ -0,0 +1,10 @@
+DROP TABLE IF EXISTS visits;
+
+CREATE TABLE visits (
+  id          INTEGER GENERATED BY DEFAULT AS IDENTITY (START WITH 100) PRIMARY KEY,
+  pet_id      INTEGER NOT NULL,
+  visit_date  DATE,
+  description VARCHAR(8192)
+);
+
+CREATE INDEX visits_pet_id_visit_date ON visits (pet_id, visit_date);